@@ -0,0 +1,60 @@
+package io.example.github.benchmark;
+
+import io.example.github.model.Page;
+import io.example.github.model.RepoActivity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the {@code /activity/{username}} response: a page of repositories with their
+ * recent commits, written with the same Jackson configuration as the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityPageBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"20"})
+    private int commitsPerRepo;
+
+    private List<RepoActivity> all;
+    private Page<RepoActivity> page;
+
+    @Setup
+    public void setUp() {
+        // Ten pages worth of repositories, the page asked for is the second one
+        all = Payloads.activity(pageSize * 10, commitsPerRepo);
+        page = buildPage();
+    }
+
+    @Benchmark
+    public Page<RepoActivity> buildPage() {
+        int from = pageSize;
+        List<RepoActivity> content = all.subList(from, Math.min(from + pageSize, all.size()));
+        return new Page<>(content, 1, pageSize, all.size(), content.stream().anyMatch(RepoActivity::isStale));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return Payloads.MAPPER.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,67 @@
+package io.example.github.benchmark;
+
+import io.example.github.util.GithubMappers;
+import io.example.github.util.GithubMappers.PaginationInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsing the Link header of a listing page, which happens once per page fetched or served from the
+ * conditional cache. {@code recompilingPatterns} is the previous implementation, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkHeaderBenchmark {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    public LinkHeaderBenchmark() {
+        // As sent for page 2 of a user's repositories
+        headers.set(HttpHeaders.LINK,
+                "<https://api.github.com/user/583231/repos?per_page=100&page=1&sort=updated>; rel=\"prev\", "
+                        + "<https://api.github.com/user/583231/repos?per_page=100&page=3&sort=updated>; rel=\"next\", "
+                        + "<https://api.github.com/user/583231/repos?per_page=100&page=12&sort=updated>; rel=\"last\", "
+                        + "<https://api.github.com/user/583231/repos?per_page=100&page=1&sort=updated>; rel=\"first\"");
+    }
+
+    @Benchmark
+    public PaginationInfo paginationInfo() {
+        return GithubMappers.parsePaginationInfo(headers);
+    }
+
+    @Benchmark
+    public String nextLink() {
+        return GithubMappers.parseNextLink(headers);
+    }
+
+    @Benchmark
+    public PaginationInfo recompilingPatterns() {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        Matcher m = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"").matcher(link);
+        Map<String, String> rels = new HashMap<>();
+        while (m.find()) {
+            rels.put(m.group(2), m.group(1));
+        }
+        String lastUrl = rels.get("last");
+        Matcher page = Pattern.compile("[?&]page=(\\d+)").matcher(lastUrl);
+        return new PaginationInfo(rels.get("next"), lastUrl, page.find() ? Integer.parseInt(page.group(1)) : 0);
+    }
+}
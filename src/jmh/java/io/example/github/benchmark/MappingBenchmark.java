@@ -0,0 +1,90 @@
+package io.example.github.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import io.example.github.util.GithubJsonDecoder;
+import io.example.github.util.GithubMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a page of repositories or commits: the Map based mappers against the streaming decoder the
+ * client uses, and the timestamp fast path against {@link OffsetDateTime#parse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> LIST_OF_MAPS = new TypeReference<>() {
+    };
+    private static final String TIMESTAMP = "2011-04-14T16:00:49Z";
+
+    @Param({"100"})
+    private int pageSize;
+
+    private byte[] repos;
+    private byte[] commits;
+
+    @Setup
+    public void setUp() {
+        repos = Payloads.repos(pageSize);
+        commits = Payloads.commits(pageSize);
+    }
+
+    @Benchmark
+    public List<RepoSummary> reposViaMaps() throws IOException {
+        List<Map<String, Object>> json = Payloads.MAPPER.readValue(repos, LIST_OF_MAPS);
+        return json.stream().map(GithubMappers::mapRepo).toList();
+    }
+
+    @Benchmark
+    public List<RepoSummary> reposStreaming() throws IOException {
+        try (JsonParser parser = GithubJsonDecoder.parser(repos)) {
+            return GithubJsonDecoder.readRepos(parser);
+        }
+    }
+
+    @Benchmark
+    public List<CommitInfo> commitsViaMaps() throws IOException {
+        List<Map<String, Object>> json = Payloads.MAPPER.readValue(commits, LIST_OF_MAPS);
+        return json.stream().map(GithubMappers::mapCommit).toList();
+    }
+
+    @Benchmark
+    public List<CommitInfo> commitsStreaming() throws IOException {
+        try (JsonParser parser = GithubJsonDecoder.parser(commits)) {
+            return GithubJsonDecoder.readCommits(parser, pageSize);
+        }
+    }
+
+    @Benchmark
+    public OffsetDateTime timestampOffsetDateTimeParse() {
+        return OffsetDateTime.parse(TIMESTAMP);
+    }
+
+    @Benchmark
+    public OffsetDateTime timestampFastPath() {
+        return GithubMappers.parseTimestamp(TIMESTAMP);
+    }
+}
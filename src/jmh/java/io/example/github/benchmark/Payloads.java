@@ -0,0 +1,93 @@
+package io.example.github.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import io.example.github.util.GithubJsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark inputs built from the recorded GitHub responses in {@code payloads/}: one repository and one
+ * commit exactly as the REST API returns them, repeated into full pages with distinct names and SHAs.
+ */
+final class Payloads {
+
+    // Configured like the mapper Spring Boot gives the controllers
+    static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Payloads() {
+    }
+
+    // A /users/{username}/repos page of `count` repositories
+    static byte[] repos(int count) {
+        ObjectNode template = load("repo.json");
+        ArrayNode page = MAPPER.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode repo = template.deepCopy();
+            repo.put("id", 1296269 + i);
+            repo.put("name", "Hello-World-" + i);
+            repo.put("full_name", "octocat/Hello-World-" + i);
+            repo.put("html_url", "https://github.com/octocat/Hello-World-" + i);
+            page.add(repo);
+        }
+        return bytes(page);
+    }
+
+    // A /repos/{owner}/{repo}/commits page of `count` commits, newest first
+    static byte[] commits(int count) {
+        ObjectNode template = load("commit.json");
+        ArrayNode page = MAPPER.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode commit = template.deepCopy();
+            String sha = String.format("%040x", 0x6dcb09b5L + i);
+            commit.put("sha", sha);
+            commit.put("html_url", "https://github.com/octocat/Hello-World/commit/" + sha);
+            ObjectNode author = (ObjectNode) commit.get("commit").get("author");
+            author.put("date", String.format("2011-04-%02dT%02d:00:49Z", 28 - i / 24 % 28, 23 - i % 24));
+            page.add(commit);
+        }
+        return bytes(page);
+    }
+
+    // `repos` activities of `commits` commits each, decoded from the recorded payloads
+    static List<RepoActivity> activity(int repos, int commits) {
+        try {
+            List<RepoSummary> summaries = GithubJsonDecoder.readRepos(GithubJsonDecoder.parser(repos(repos)));
+            List<CommitInfo> recent = GithubJsonDecoder.readCommits(GithubJsonDecoder.parser(commits(commits)), commits);
+            List<RepoActivity> activity = new ArrayList<>(repos);
+            summaries.forEach(repo -> activity.add(new RepoActivity(repo, recent)));
+            return activity;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static ObjectNode load(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing payload " + name);
+            return (ObjectNode) MAPPER.readTree(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] bytes(ArrayNode page) {
+        try {
+            return MAPPER.writeValueAsBytes(page);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.example.github.client;
+
+import io.example.github.exception.UpstreamUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling GitHub after {@code failure-threshold} consecutive upstream failures (5xx, I/O errors).
+ * While open, calls fail immediately with {@link UpstreamUnavailableException} instead of tying up a
+ * thread; after {@code open-duration} a single trial call is let through and its outcome decides
+ * whether the breaker closes again. 4xx answers mean GitHub is healthy and count as successes.
+ */
+@Component
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+
+    @Autowired
+    public CircuitBreaker(@Value("${github.circuit-breaker.enabled:true}") boolean enabled,
+                          @Value("${github.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${github.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this(enabled, failureThreshold, openDuration, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(boolean enabled, int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    public <T> T call(Supplier<T> call) {
+        if (!enabled) return call.get();
+        boolean trial = admit();
+        try {
+            T result = call.get();
+            onSuccess(trial);
+            return result;
+        } catch (RuntimeException ex) {
+            if (isUpstreamFailure(ex)) onFailure(trial);
+            else onSuccess(trial);
+            throw ex;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public static boolean isUpstreamFailure(Throwable ex) {
+        return ex instanceof HttpServerErrorException || ex instanceof ResourceAccessException;
+    }
+
+    // Returns whether this call is the half-open trial, or throws if the breaker rejects it
+    private synchronized boolean admit() {
+        if (state == State.CLOSED) return false;
+        long now = clock.getAsLong();
+        if (state == State.OPEN && now - openedAtMillis >= openMillis) {
+            state = State.HALF_OPEN;
+            log.info("GitHub circuit breaker half-open, letting a trial call through");
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        long retryAfter = Math.max(1, (openedAtMillis + openMillis - now + 999) / 1000);
+        throw new UpstreamUnavailableException("GitHub is unavailable, circuit breaker is " + state, retryAfter);
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+            log.info("GitHub circuit breaker closed after a successful trial call");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onFailure(boolean trial) {
+        if (trial) trialInFlight = false;
+        consecutiveFailures++;
+        if (trial || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtMillis = clock.getAsLong();
+            log.warn("GitHub circuit breaker opened after {} consecutive failures", consecutiveFailures);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.example.github.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the validators (ETag / Last-Modified) and the already mapped body of each
+ * upstream URL so that GithubClient can send conditional requests and serve a 304 from memory.
+ * Entries are evicted least-recently-used once {@code maxEntries} is reached.
+ */
+@Component
+public class ConditionalRequestCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry<?>> entries;
+
+    public ConditionalRequestCache(@Value("${github.cache.conditional.max-entries:5000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<?>> eldest) {
+                return size() > ConditionalRequestCache.this.maxEntries;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Entry<T> get(String url) {
+        return (Entry<T>) entries.get(url);
+    }
+
+    public synchronized void put(String url, Entry<?> entry) {
+        if (maxEntries <= 0) return;
+        entries.put(url, entry);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static class Entry<T> {
+        private final String etag;
+        private final String lastModified;
+        private final List<T> body;
+        private final HttpHeaders headers;
+
+        public Entry(String etag, String lastModified, List<T> body, HttpHeaders headers) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = List.copyOf(body);
+            this.headers = headers;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public List<T> getBody() {
+            return body;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
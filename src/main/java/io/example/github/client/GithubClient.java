@@ -1,31 +1,65 @@
 package io.example.github.client;
 
+import com.fasterxml.jackson.core.JsonParser;
 import io.example.github.model.CommitInfo;
 import io.example.github.model.PaginationResult;
 import io.example.github.model.RepoSummary;
+import io.example.github.util.GithubJsonDecoder;
 import io.example.github.util.GithubMappers;
 import io.example.github.util.GithubMappers.PaginationInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Component
 public class GithubClient {
 
     private static final Logger log = LoggerFactory.getLogger(GithubClient.class);
+    private static final DefaultResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
 
     private final RestClient rest;
+    private final ConditionalRequestCache conditionalCache;
+    private final UpstreamLimiter limiter;
+    private final RateLimitScheduler rateLimit;
+    private final RetryPolicy retry;
+    private final HedgingPolicy hedging;
+    private final CircuitBreaker breaker;
+    private final UpstreamMetrics metrics;
+    private final ExecutorService prefetchExecutor;
+    private final int prefetchParallelism;
 
-    public GithubClient(RestClient githubRestClient) {
+    public GithubClient(RestClient githubRestClient, ConditionalRequestCache conditionalCache, UpstreamLimiter limiter,
+                        RateLimitScheduler rateLimit, RetryPolicy retry, HedgingPolicy hedging, CircuitBreaker breaker, UpstreamMetrics metrics,
+                        @Qualifier("githubPrefetchExecutor") ExecutorService prefetchExecutor,
+                        @Value("${github.client.page-prefetch-parallelism:4}") int prefetchParallelism) {
         this.rest = githubRestClient;
+        this.conditionalCache = conditionalCache;
+        this.limiter = limiter;
+        this.rateLimit = rateLimit;
+        this.retry = retry;
+        this.hedging = hedging;
+        this.breaker = breaker;
+        this.metrics = metrics;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetchParallelism = prefetchParallelism;
     }
 
     public List<RepoSummary> fetchAllRepos(String username) {
@@ -47,29 +81,31 @@ public class GithubClient {
     }
 
     public PaginationResult<RepoSummary> fetchReposByPage(String username, int page, int perPage) {
-        // Try user repos, then org repos if 404.
+        // Try user repos, then org repos only if the user is unknown; an empty page past the end is an answer
         PaginationResult<RepoSummary> result = tryPagedByPage("/users/{username}/repos", username, page, perPage);
-        if (result.getRepos().isEmpty()) {
+        if (result == null) {
             result = tryPagedByPage("/orgs/{username}/repos", username, page, perPage);
         }
-        return result;
+        return result != null ? result : new PaginationResult<>(new ArrayList<>(), 0, page, false);
     }
 
     private List<RepoSummary> tryPaged(String path, String username) {
         List<RepoSummary> acc = new ArrayList<>();
         String url = path + "?per_page=100&page=1&sort=updated";
         url = url.replace("{username}", username);
+        boolean firstPage = true;
         while (url != null) {
-            ResponseEntity<Map[]> response = rest.get()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(Map[].class);
-            Map[] body = response.getBody();
-            if (body == null || body.length == 0) break;
-            Arrays.stream(body)
-                    .map(m -> GithubMappers.mapRepo((Map<String, Object>) m))
-                    .forEach(acc::add);
-            String next = GithubMappers.parseNextLink(response.getHeaders());
+            CachedList<RepoSummary> response = getList(url, GithubJsonDecoder::readRepos);
+            if (response.body().isEmpty()) break;
+            acc.addAll(response.body());
+            PaginationInfo paginationInfo = GithubMappers.parsePaginationInfo(response.headers());
+            if (firstPage && paginationInfo.hasNext() && paginationInfo.getTotalPages() > 1) {
+                // rel="last" tells us every remaining page up front, fetch them concurrently
+                fetchPagesConcurrently(path, username, 100, paginationInfo.getTotalPages()).forEach(acc::addAll);
+                break;
+            }
+            firstPage = false;
+            String next = paginationInfo.getNextUrl();
             url = next != null ? URI.create(next).getPath() + "?" + (URI.create(next).getQuery() == null ? "" : URI.create(next).getQuery()) : null;
         }
         return acc;
@@ -84,23 +120,23 @@ public class GithubClient {
         boolean hasNext = false;
         
         while (url != null) {
-            ResponseEntity<Map[]> response = rest.get()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(Map[].class);
-            Map[] body = response.getBody();
-            if (body == null || body.length == 0) break;
+            CachedList<RepoSummary> response = getList(url, GithubJsonDecoder::readRepos);
+            if (response.body().isEmpty()) break;
             
-            Arrays.stream(body)
-                    .map(m -> GithubMappers.mapRepo((Map<String, Object>) m))
-                    .forEach(acc::add);
+            acc.addAll(response.body());
             
             // Parse pagination info from headers
-            PaginationInfo paginationInfo = GithubMappers.parsePaginationInfo(response.getHeaders());
+            PaginationInfo paginationInfo = GithubMappers.parsePaginationInfo(response.headers());
             hasNext = paginationInfo.hasNext();
             totalPages = paginationInfo.getTotalPages();
             
-            if (hasNext) {
+            if (currentPage == 1 && hasNext && totalPages > 1) {
+                // rel="last" tells us every remaining page up front, fetch them concurrently
+                fetchPagesConcurrently(path, username, perPage, totalPages).forEach(acc::addAll);
+                currentPage = totalPages;
+                hasNext = false;
+                url = null;
+            } else if (hasNext) {
                 String nextUrl = paginationInfo.getNextUrl();
                 url = nextUrl != null ? URI.create(nextUrl).getPath() + "?" + (URI.create(nextUrl).getQuery() == null ? "" : URI.create(nextUrl).getQuery()) : null;
                 currentPage++;
@@ -112,26 +148,17 @@ public class GithubClient {
         return new PaginationResult<>(acc, totalPages, currentPage, hasNext);
     }
 
+    // Null when the owner is not found
     private PaginationResult<RepoSummary> tryPagedByPage(String path, String username, int page, int perPage) {
         String url = path + "?per_page=" + perPage + "&page=" + page + "&sort=updated";
         url = url.replace("{username}", username);
         
         try {
-            ResponseEntity<Map[]> response = rest.get()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(Map[].class);
-            Map[] body = response.getBody();
-            List<RepoSummary> repos = new ArrayList<>();
-            
-            if (body != null) {
-                Arrays.stream(body)
-                        .map(m -> GithubMappers.mapRepo((Map<String, Object>) m))
-                        .forEach(repos::add);
-            }
+            CachedList<RepoSummary> response = getList(url, GithubJsonDecoder::readRepos);
+            List<RepoSummary> repos = response.body();
             
             // Parse pagination info from headers
-            PaginationInfo paginationInfo = GithubMappers.parsePaginationInfo(response.getHeaders());
+            PaginationInfo paginationInfo = GithubMappers.parsePaginationInfo(response.headers());
             boolean hasNext = paginationInfo.hasNext();
             int totalPages = paginationInfo.getTotalPages();
             
@@ -139,34 +166,154 @@ public class GithubClient {
         } catch (org.springframework.web.client.HttpClientErrorException ex) {
             // Handle 404 - user/organization not found
             if (ex.getStatusCode().value() == 404) {
-                return new PaginationResult<>(new ArrayList<>(), 0, page, false);
+                metrics.notFoundFallback();
+                return null;
             }
             throw ex; // rethrow other errors
         }
     }
 
+    // Fetches pages 2..lastPage with at most prefetchParallelism requests in flight, returned in page order.
+    // Workers run on their own executor: callers block here and may themselves be githubExecutor threads
+    private List<List<RepoSummary>> fetchPagesConcurrently(String path, String username, int perPage, int lastPage) {
+        int remaining = lastPage - 1;
+        List<List<RepoSummary>> pages = new ArrayList<>(Collections.nCopies(remaining, List.of()));
+        AtomicInteger nextPage = new AtomicInteger(2);
+        int workers = Math.max(1, Math.min(prefetchParallelism, remaining));
+        log.debug("Prefetching pages 2..{} of {} with {} workers", lastPage, path.replace("{username}", username), workers);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                int page;
+                while ((page = nextPage.getAndIncrement()) <= lastPage) {
+                    String url = (path + "?per_page=" + perPage + "&page=" + page + "&sort=updated").replace("{username}", username);
+                    pages.set(page - 2, getList(url, GithubJsonDecoder::readRepos).body());
+                }
+            }, prefetchExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+        return pages;
+    }
+
     public List<CommitInfo> fetchRecentCommits(String username, String repo, int limit) {
+        return fetchRecentCommits(username, repo, limit, null);
+    }
+
+    // Only commits at or after `since` (null for no bound); the URL stays stable while `since` does,
+    // so an idle repository keeps answering 304 for the stored ETag
+    public List<CommitInfo> fetchRecentCommits(String username, String repo, int limit, OffsetDateTime since) {
         int perPage = Math.min(100, Math.max(1, limit));
         String url = String.format("/repos/%s/%s/commits?per_page=%d", username, repo, perPage);
+        if (since != null) {
+            url += "&since=" + since.toInstant();
+        }
 
         try {
-            ResponseEntity<Map[]> response = rest.get().uri(url).retrieve().toEntity(Map[].class);
-            Map[] body = response.getBody();
-            List<CommitInfo> commits = new ArrayList<>();
-            if (body != null) {
-                for (Map m : body) {
-                    commits.add(GithubMappers.mapCommit((Map<String, Object>) m));
-                    if (commits.size() >= limit) break;
-                }
-            }
-            return commits;
+            return getList(url, parser -> GithubJsonDecoder.readCommits(parser, limit)).body();
         } catch (org.springframework.web.client.HttpClientErrorException ex) {
             // Handle empty repo (409)
-            if (ex.getStatusCode().value() == 409 &&
-                    ex.getResponseBodyAsString().contains("Git Repository is empty")) {
+            if (isEmptyRepository(ex)) {
+                metrics.emptyRepositoryFallback();
                 return new ArrayList<>();
             }
             throw ex; // rethrow other errors
         }
     }
+
+    // Every commit at or after `since`, 100 per page for at most maxPages pages; hasNext is set when
+    // GitHub had more than that
+    public PaginationResult<CommitInfo> fetchCommitsSince(String username, String repo, OffsetDateTime since, int maxPages) {
+        String base = String.format("/repos/%s/%s/commits?per_page=100&since=%s", username, repo, since.toInstant());
+        List<CommitInfo> acc = new ArrayList<>();
+        int page = 0;
+        boolean hasNext = true;
+        try {
+            while (hasNext && page < maxPages) {
+                page++;
+                CachedList<CommitInfo> response = getList(base + "&page=" + page, parser -> GithubJsonDecoder.readCommits(parser, 100));
+                acc.addAll(response.body());
+                hasNext = !response.body().isEmpty() && GithubMappers.parsePaginationInfo(response.headers()).hasNext();
+            }
+        } catch (org.springframework.web.client.HttpClientErrorException ex) {
+            if (isEmptyRepository(ex)) {
+                metrics.emptyRepositoryFallback();
+                return new PaginationResult<>(new ArrayList<>(), 0, 1, false);
+            }
+            throw ex;
+        }
+        return new PaginationResult<>(acc, hasNext ? 0 : page, page, hasNext);
+    }
+
+    private static boolean isEmptyRepository(org.springframework.web.client.HttpClientErrorException ex) {
+        return ex.getStatusCode().value() == 409 && ex.getResponseBodyAsString().contains("Git Repository is empty");
+    }
+
+    // Conditional GET: replays the stored ETag / Last-Modified and serves the cached mapping on 304.
+    // Bodies are decoded straight from the response stream into our models. Transient failures are
+    // retried; with hedging enabled, an attempt still running past the endpoint's p95 gets a second copy
+    // with its own budget and upstream slot. The circuit breaker sees one outcome per logical call.
+    private <T> CachedList<T> getList(String url, BodyDecoder<T> decoder) {
+        ConditionalRequestCache.Entry<T> cached = conditionalCache.get(url);
+        String endpoint = UpstreamMetrics.endpoint(url.substring(0, url.indexOf('?')));
+        Fetched<T> response = breaker.call(() -> retry.execute(url, () -> hedging.execute(endpoint,
+                () -> upstream(() -> hedging.timed(endpoint, () -> rest.get()
+                        .uri(url)
+                        .headers(h -> {
+                            if (cached == null) return;
+                            if (cached.getEtag() != null) h.set(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+                            if (cached.getLastModified() != null) h.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+                        })
+                        .exchange((request, res) -> {
+                            if (res.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                                return new Fetched<T>(true, List.of(), res.getHeaders());
+                            }
+                            if (res.getStatusCode().isError()) {
+                                ERROR_HANDLER.handleError(res);
+                            }
+                            try (JsonParser parser = GithubJsonDecoder.parser(res.getBody())) {
+                                return new Fetched<>(false, decoder.decode(parser), res.getHeaders());
+                            }
+                        }))))));
+
+        if (response.notModified()) {
+            if (cached == null) return new CachedList<>(new ArrayList<>(), new HttpHeaders());
+            log.debug("Not modified, serving cached body for {}", url);
+            return new CachedList<>(new ArrayList<>(cached.getBody()), cached.getHeaders());
+        }
+
+        List<T> mapped = response.body();
+        HttpHeaders headers = new HttpHeaders();
+        String link = response.headers().getFirst(HttpHeaders.LINK);
+        if (link != null) headers.set(HttpHeaders.LINK, link);
+
+        String etag = response.headers().getETag();
+        String lastModified = response.headers().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag != null || lastModified != null) {
+            conditionalCache.put(url, new ConditionalRequestCache.Entry<>(etag, lastModified, mapped, headers));
+        }
+        return new CachedList<>(mapped, headers);
+    }
+
+    // Rate limit budget is waited for before taking an upstream slot, so a call sleeping on the budget never holds one
+    private <T> T upstream(Supplier<T> call) {
+        rateLimit.acquire();
+        return limiter.call(call);
+    }
+
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        List<T> decode(JsonParser parser) throws IOException;
+    }
+
+    private record Fetched<T>(boolean notModified, List<T> body, HttpHeaders headers) {
+    }
+
+    private record CachedList<T>(List<T> body, HttpHeaders headers) {
+    }
 }
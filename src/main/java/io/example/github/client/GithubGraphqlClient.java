@@ -0,0 +1,140 @@
+package io.example.github.client;
+
+import io.example.github.exception.GithubGraphqlException;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import io.example.github.util.GithubMappers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches repositories of a user or organization together with the last commits of each
+ * default branch through the GitHub GraphQL API, one batch of repositories per query.
+ */
+@Component
+public class GithubGraphqlClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubGraphqlClient.class);
+
+    private static final String REPOSITORIES_QUERY = """
+            query($login: String!, $first: Int!, $after: String, $commits: Int!, $withCommits: Boolean!) {
+              repositoryOwner(login: $login) {
+                repositories(first: $first, after: $after, ownerAffiliations: OWNER,
+                             orderBy: {field: UPDATED_AT, direction: DESC}) {
+                  totalCount
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    nameWithOwner
+                    isPrivate
+                    isFork
+                    url
+                    defaultBranchRef {
+                      name
+                      target {
+                        ... on Commit {
+                          history(first: $commits) @include(if: $withCommits) {
+                            nodes { oid message url author { name email date } }
+                          }
+                        }
+                      }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private final RestClient rest;
+    private final UpstreamLimiter limiter;
+    private final RateLimitScheduler rateLimit;
+    private final String path;
+
+    public GithubGraphqlClient(RestClient githubRestClient, UpstreamLimiter limiter, RateLimitScheduler rateLimit,
+                               @Value("${github.graphql.path:/graphql}") String path) {
+        this.rest = githubRestClient;
+        this.limiter = limiter;
+        this.rateLimit = rateLimit;
+        this.path = path;
+    }
+
+    /**
+     * Fetches up to {@code first} repositories after {@code after} (null for the start).
+     * Commit history is only requested when {@code withCommits} is set, which keeps skipping cheap.
+     */
+    @SuppressWarnings("unchecked")
+    public RepositoryBatch fetchRepositories(String login, int first, String after, int commitLimit, boolean withCommits) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", login);
+        variables.put("first", first);
+        variables.put("after", after);
+        variables.put("commits", Math.min(100, Math.max(1, commitLimit)));
+        variables.put("withCommits", withCommits);
+
+        log.debug("GraphQL repositories query for {} (first: {}, after: {}, withCommits: {})", login, first, after, withCommits);
+        // Budget first, so a query waiting on the rate limit does not hold an upstream slot
+        rateLimit.acquire();
+        Map<String, Object> response = limiter.call(() -> rest.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("query", REPOSITORIES_QUERY, "variables", variables))
+                .retrieve()
+                .body(Map.class));
+
+        if (response == null) {
+            return RepositoryBatch.empty();
+        }
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            if (errors.stream().allMatch(e -> "NOT_FOUND".equals(e.get("type")))) {
+                return RepositoryBatch.empty();
+            }
+            throw new GithubGraphqlException(errors.stream().map(e -> String.valueOf(e.get("message"))).toList());
+        }
+
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        Map<String, Object> owner = data == null ? null : (Map<String, Object>) data.get("repositoryOwner");
+        if (owner == null) {
+            return RepositoryBatch.empty();
+        }
+        Map<String, Object> repositories = (Map<String, Object>) owner.get("repositories");
+        Map<String, Object> pageInfo = (Map<String, Object>) repositories.get("pageInfo");
+
+        List<RepoActivity> activities = new ArrayList<>();
+        for (Map<String, Object> node : (List<Map<String, Object>>) repositories.get("nodes")) {
+            RepoSummary repo = GithubMappers.mapGraphqlRepo(node);
+            List<CommitInfo> commits = new ArrayList<>();
+            Map<String, Object> branch = (Map<String, Object>) node.get("defaultBranchRef");
+            Map<String, Object> target = branch == null ? null : (Map<String, Object>) branch.get("target");
+            Map<String, Object> history = target == null ? null : (Map<String, Object>) target.get("history");
+            if (history != null) {
+                for (Map<String, Object> commit : (List<Map<String, Object>>) history.get("nodes")) {
+                    commits.add(GithubMappers.mapGraphqlCommit(commit));
+                }
+            }
+            activities.add(new RepoActivity(repo, commits));
+        }
+
+        return new RepositoryBatch(activities,
+                ((Number) repositories.get("totalCount")).intValue(),
+                Boolean.TRUE.equals(pageInfo.get("hasNextPage")),
+                (String) pageInfo.get("endCursor"));
+    }
+
+    public record RepositoryBatch(List<RepoActivity> repositories, int totalCount, boolean hasNextPage, String endCursor) {
+
+        static RepositoryBatch empty() {
+            return new RepositoryBatch(List.of(), 0, false, null);
+        }
+    }
+}
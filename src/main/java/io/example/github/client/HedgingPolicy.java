@@ -0,0 +1,145 @@
+package io.example.github.client;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tracks latency per kind of upstream call and, when enabled, fires a duplicate of an attempt that is
+ * still running after the observed percentile latency, taking whichever copy succeeds first.
+ * Hedged calls run on their own virtual threads so they never compete with the commit fan-out executor.
+ */
+@Component
+public class HedgingPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingPolicy.class);
+    private static final int WINDOW = 256;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayMillis;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("github-hedge-", 0).factory());
+
+    public HedgingPolicy(@Value("${github.hedging.enabled:false}") boolean enabled,
+                         @Value("${github.hedging.percentile:0.95}") double percentile,
+                         @Value("${github.hedging.min-samples:20}") int minSamples,
+                         @Value("${github.hedging.min-delay:50ms}") Duration minDelay) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayMillis = minDelay.toMillis();
+    }
+
+    /**
+     * Runs one attempt of a call, hedged once it passes the endpoint's percentile latency. The attempt is
+     * expected to take its own upstream permit; the copy that loses is interrupted so it gives that permit back.
+     */
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        LatencyTracker tracker = tracker(endpoint);
+        long hedgeAfter = enabled && tracker.count() >= minSamples
+                ? Math.max(minDelayMillis, tracker.percentile(percentile)) : -1;
+        if (hedgeAfter < 0) {
+            return call.get();
+        }
+
+        Attempt<T> primary = start(call);
+        try {
+            return primary.result().get(hedgeAfter, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            log.debug("{} call still running after {}ms, hedging", endpoint, hedgeAfter);
+            return unwrap(firstSuccessful(primary, start(call)));
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            primary.task().cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for " + endpoint + " call", ex);
+        }
+    }
+
+    /**
+     * Runs the upstream exchange itself and records its latency for {@code endpoint}, so time spent waiting
+     * for rate limit budget or an upstream slot does not move the hedging threshold.
+     */
+    public <T> T timed(String endpoint, Supplier<T> exchange) {
+        long start = System.nanoTime();
+        T result = exchange.get();
+        tracker(endpoint).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    public LatencyTracker tracker(String endpoint) {
+        return trackers.computeIfAbsent(endpoint, k -> new LatencyTracker(WINDOW));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private <T> Attempt<T> start(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = hedgeExecutor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        return new Attempt<>(result, task);
+    }
+
+    // Completes with the first successful result and interrupts the other copy; fails only once both have failed
+    private static <T> CompletableFuture<T> firstSuccessful(Attempt<T> a, Attempt<T> b) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (Attempt<T> attempt : List.of(a, b)) {
+            Attempt<T> other = attempt == a ? b : a;
+            attempt.result().whenComplete((value, ex) -> {
+                if (ex == null) {
+                    if (result.complete(value)) other.task().cancel(true);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> T unwrap(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return new IllegalStateException(cause);
+    }
+
+    private record Attempt<T>(CompletableFuture<T> result, Future<?> task) {
+    }
+}
@@ -0,0 +1,148 @@
+package io.example.github.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link HttpClient} that counts the exchanges waiting for response headers and the protocol each
+ * response came back on, so the pooled transport can be watched: the JDK client has no pool statistics
+ * of its own, and an HTTP/2 connection silently falls back to HTTP/1.1 when the server does not offer it.
+ */
+public class InstrumentedHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Version, Counter> responses = new ConcurrentHashMap<>();
+
+    public InstrumentedHttpClient(HttpClient delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        Gauge.builder("github.http.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests sent to GitHub still waiting for response headers").register(registry);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        inFlight.incrementAndGet();
+        try {
+            return record(delegate.send(request, handler));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        inFlight.incrementAndGet();
+        return delegate.sendAsync(request, handler)
+                .whenComplete((response, ex) -> inFlight.decrementAndGet())
+                .thenApply(this::record);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        inFlight.incrementAndGet();
+        return delegate.sendAsync(request, handler, pushPromiseHandler)
+                .whenComplete((response, ex) -> inFlight.decrementAndGet())
+                .thenApply(this::record);
+    }
+
+    private <T> HttpResponse<T> record(HttpResponse<T> response) {
+        responses.computeIfAbsent(response.version(), version -> Counter.builder("github.http.responses")
+                .description("Responses from GitHub by negotiated protocol")
+                .tag("protocol", version.name())
+                .register(registry)).increment();
+        return response;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean awaitTermination(Duration duration) throws InterruptedException {
+        return delegate.awaitTermination(duration);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
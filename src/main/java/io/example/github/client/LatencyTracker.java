@@ -0,0 +1,44 @@
+package io.example.github.client;
+
+import java.util.Arrays;
+
+/**
+ * Rolling window of the most recent call latencies for one kind of upstream call,
+ * answering percentile queries from a sorted copy refreshed every few samples.
+ */
+public class LatencyTracker {
+
+    private static final int REFRESH_EVERY = 16;
+
+    private final long[] samples;
+    private int count;
+    private int next;
+    private long[] sorted = new long[0];
+    private int sinceRefresh;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (++sinceRefresh >= REFRESH_EVERY || sorted.length < count && count < REFRESH_EVERY) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            sinceRefresh = 0;
+        }
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    // Latency at the given percentile (0..1) of the window, or -1 while no samples exist
+    public synchronized long percentile(double percentile) {
+        if (sorted.length == 0) return -1;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
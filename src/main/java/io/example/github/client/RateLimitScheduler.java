@@ -0,0 +1,187 @@
+package io.example.github.client;
+
+import io.example.github.exception.RateLimitBudgetExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket fed by GitHub's X-RateLimit-* and Retry-After response headers.
+ * <p>
+ * The bucket refills at {@code remaining / time-until-reset}, so the hourly budget is spread evenly
+ * over the window, and holds at most {@code burst-fraction} of what is left, so a single fan-out can
+ * still go out at once while the budget is healthy. Calls that would wait longer than
+ * {@code max-wait} fail fast with a 429 instead of queueing behind an exhausted budget.
+ */
+@Component
+public class RateLimitScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+    private final boolean enabled;
+    private final double burstFraction;
+    private final int minBurst;
+    private final long maxWaitMillis;
+    private final LongSupplier clock;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Budget as last reported by GitHub; -1 until the first response arrives
+    private long limit = -1;
+    private long remaining = -1;
+    private long resetAtMillis;
+    private long pausedUntilMillis;
+    private double tokens;
+    private long lastRefillMillis;
+
+    @Autowired
+    public RateLimitScheduler(@Value("${github.ratelimit.enabled:true}") boolean enabled,
+                              @Value("${github.ratelimit.burst-fraction:0.1}") double burstFraction,
+                              @Value("${github.ratelimit.min-burst:5}") int minBurst,
+                              @Value("${github.ratelimit.max-wait:30s}") Duration maxWait) {
+        this(enabled, burstFraction, minBurst, maxWait, System::currentTimeMillis);
+    }
+
+    RateLimitScheduler(boolean enabled, double burstFraction, int minBurst, Duration maxWait, LongSupplier clock) {
+        this.enabled = enabled;
+        this.burstFraction = burstFraction;
+        this.minBurst = Math.max(1, minBurst);
+        this.maxWaitMillis = maxWait.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Blocks until the budget allows one more call, or throws {@link RateLimitBudgetExceededException}
+     * (answered with 429) if that would take longer than max-wait.
+     */
+    public void acquire() {
+        if (!enabled) return;
+        long deadline = clock.getAsLong() + maxWaitMillis;
+        waiting.incrementAndGet();
+        try {
+            while (true) {
+                long waitMillis;
+                synchronized (this) {
+                    waitMillis = tryTake(clock.getAsLong());
+                }
+                if (waitMillis <= 0) return;
+                if (clock.getAsLong() + waitMillis > deadline) {
+                    rejected.incrementAndGet();
+                    throw budgetExhausted(waitMillis);
+                }
+                Thread.sleep(Math.min(waitMillis, 1000));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for GitHub rate limit budget", ex);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records the budget GitHub reported on a response (any status).
+     */
+    public synchronized void update(HttpHeaders headers, HttpStatusCode status) {
+        long now = clock.getAsLong();
+        Long newLimit = longHeader(headers, "X-RateLimit-Limit");
+        Long newRemaining = longHeader(headers, "X-RateLimit-Remaining");
+        Long reset = longHeader(headers, "X-RateLimit-Reset");
+        if (newRemaining != null && reset != null) {
+            boolean first = remaining < 0;
+            limit = newLimit != null ? newLimit : limit;
+            remaining = newRemaining;
+            resetAtMillis = reset * 1000;
+            refill(now);
+            tokens = first ? capacity() : Math.min(tokens, capacity());
+        }
+
+        // Conditional hits are not counted against the budget, so the token taken for the call is given back
+        if (status.value() == HttpStatus.NOT_MODIFIED.value() && remaining >= 0) {
+            tokens = Math.min(capacity(), tokens + 1);
+        }
+
+        Long retryAfter = longHeader(headers, HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            pausedUntilMillis = Math.max(pausedUntilMillis, now + retryAfter * 1000);
+            log.warn("GitHub asked us to back off for {}s (status {})", retryAfter, status.value());
+        } else if (remaining == 0 && (status.value() == 403 || status.value() == 429)) {
+            pausedUntilMillis = Math.max(pausedUntilMillis, resetAtMillis);
+            log.warn("GitHub rate limit exhausted, pausing until reset in {}s", (resetAtMillis - now) / 1000);
+        }
+    }
+
+    public synchronized Budget snapshot() {
+        long now = clock.getAsLong();
+        return new Budget(limit, remaining, Math.max(0, (resetAtMillis - now) / 1000), tokens, waiting.get());
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // Returns 0 if a token was taken, otherwise how long to wait before trying again
+    private long tryTake(long now) {
+        if (pausedUntilMillis > now) return pausedUntilMillis - now;
+        // Unknown budget, or the window rolled over: let the next response tell us the new budget
+        if (remaining < 0 || resetAtMillis <= now) return 0;
+
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            remaining = Math.max(0, remaining - 1);
+            return 0;
+        }
+        double ratePerMilli = ratePerMilli(now);
+        if (ratePerMilli <= 0) return resetAtMillis - now;
+        return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerMilli));
+    }
+
+    private void refill(long now) {
+        if (lastRefillMillis > 0 && now > lastRefillMillis) {
+            tokens = Math.min(capacity(), tokens + (now - lastRefillMillis) * ratePerMilli(now));
+        }
+        lastRefillMillis = now;
+    }
+
+    private double ratePerMilli(long now) {
+        long window = resetAtMillis - now;
+        return window <= 0 ? Double.MAX_VALUE : (double) remaining / window;
+    }
+
+    private double capacity() {
+        return Math.min(remaining, Math.max(minBurst, remaining * burstFraction));
+    }
+
+    // Not an HttpClientErrorException, so retries never mistake it for a secondary rate limit from GitHub
+    private static RateLimitBudgetExceededException budgetExhausted(long waitMillis) {
+        return new RateLimitBudgetExceededException("GitHub rate limit budget exhausted", Math.max(1, waitMillis / 1000));
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public record Budget(long limit, long remaining, long secondsUntilReset, double tokens, int waiting) {
+    }
+}
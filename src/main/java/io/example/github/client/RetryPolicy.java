@@ -0,0 +1,94 @@
+package io.example.github.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries idempotent GitHub GETs on transient failures (502/503/504, I/O errors) with exponential
+ * backoff and full jitter, and on secondary rate limits (403/429 with Retry-After) after the delay
+ * GitHub asked for. Other errors, such as 404 or 409, and our own rate limit budget rejections are returned
+ * to the caller straight away.
+ */
+@Component
+public class RetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long maxRetryAfterMillis;
+
+    public RetryPolicy(@Value("${github.retry.max-attempts:3}") int maxAttempts,
+                       @Value("${github.retry.initial-backoff:200ms}") Duration initialBackoff,
+                       @Value("${github.retry.max-backoff:5s}") Duration maxBackoff,
+                       @Value("${github.retry.max-retry-after:60s}") Duration maxRetryAfter) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+    }
+
+    public <T> T execute(String description, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException ex) {
+                long delay = retryDelay(ex, attempt);
+                if (attempt >= maxAttempts || delay < 0) throw ex;
+                log.debug("Attempt {} of {} for {} failed ({}), retrying in {}ms",
+                        attempt, maxAttempts, description, ex.getMessage(), delay);
+                sleep(delay);
+            }
+        }
+    }
+
+    // Delay before the next attempt, or -1 if the failure is not worth retrying
+    private long retryDelay(RuntimeException ex, int attempt) {
+        if (ex instanceof HttpServerErrorException server) {
+            int status = server.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504 ? backoff(attempt) : -1;
+        }
+        if (ex instanceof ResourceAccessException) {
+            return backoff(attempt);
+        }
+        if (ex instanceof HttpClientErrorException client
+                && (client.getStatusCode().value() == 403 || client.getStatusCode().value() == 429)) {
+            // Secondary rate limits say how long to wait; primary limit exhaustion does not and is not retried
+            String retryAfter = client.getResponseHeaders() != null
+                    ? client.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+            if (retryAfter == null) return -1;
+            try {
+                long millis = Long.parseLong(retryAfter.trim()) * 1000;
+                return millis <= maxRetryAfterMillis ? millis : -1;
+            } catch (NumberFormatException nfe) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off before a GitHub retry", ex);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.example.github.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of GitHub calls in flight at once, independently of how many threads
+ * (virtual or not) are fanning out work.
+ */
+@Component
+public class UpstreamLimiter {
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public UpstreamLimiter(@Value("${github.upstream.max-concurrent-requests:20}") int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public <T> T call(Supplier<T> upstreamCall) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an upstream permit", ex);
+        }
+        try {
+            return upstreamCall.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+}
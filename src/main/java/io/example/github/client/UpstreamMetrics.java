@@ -0,0 +1,73 @@
+package io.example.github.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for calls to GitHub: a latency histogram per kind of endpoint and status, and counters for the
+ * errors we turn into empty results instead of failing the request.
+ */
+@Component
+public class UpstreamMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter notFound;
+    private final Counter emptyRepository;
+
+    public UpstreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.notFound = fallbackCounter("not-found");
+        this.emptyRepository = fallbackCounter("empty-repository");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    // `status` is the HTTP status code, or IO_ERROR when no response came back
+    public void stop(Timer.Sample sample, String path, String status) {
+        sample.stop(Timer.builder("github.upstream.requests")
+                .description("Time until GitHub answered with response headers")
+                .tag("endpoint", endpoint(path))
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * A 404 on a user or organization listing, answered as an empty page.
+     */
+    public void notFoundFallback() {
+        notFound.increment();
+    }
+
+    /**
+     * A 409 for a repository without commits, answered as an empty commit list.
+     */
+    public void emptyRepositoryFallback() {
+        emptyRepository.increment();
+    }
+
+    // Kind of call for a request path (with or without the API base path), so the tag stays bounded
+    public static String endpoint(String path) {
+        if (path.endsWith("/graphql")) return "graphql";
+        if (path.endsWith("/commits")) return "commits";
+        // .../{users|orgs}/{login}/repos
+        int login = path.endsWith("/repos") ? path.lastIndexOf('/', path.length() - "/repos".length() - 1) : -1;
+        if (login > 0) {
+            String owner = path.substring(0, login);
+            if (owner.endsWith("/users")) return "user-repos";
+            if (owner.endsWith("/orgs")) return "org-repos";
+        }
+        return "other";
+    }
+
+    private Counter fallbackCounter(String reason) {
+        return Counter.builder("github.upstream.fallbacks")
+                .description("Upstream errors answered with an empty result")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
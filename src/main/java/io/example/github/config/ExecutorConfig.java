@@ -0,0 +1,60 @@
+package io.example.github.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${github.executor.mode:virtual}")
+    private String mode;
+
+    @Value("${github.executor.pool-size:10}")
+    private int poolSize;
+
+    @Value("${github.client.page-prefetch-parallelism:4}")
+    private int prefetchParallelism;
+
+    @Value("${github.executor.listing-pool-size:4}")
+    private int listingPoolSize;
+
+    // Executor used for the per-repository commit fan-out. Task run and queue times are metered under
+    // executor{name=github}; the fixed pool also reports active and queued tasks, while virtual threads
+    // never queue here and show saturation as github.upstream.queued instead
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService githubExecutor(MeterRegistry meterRegistry) {
+        ExecutorService executor = newExecutor(mode, poolSize, "github");
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "github");
+    }
+
+    // Repo listing pages 2..last are fetched here while the listing caller waits. Listings are themselves
+    // run on githubExecutor, so sharing that pool would let a fixed pool park every thread on its own prefetch
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService githubPrefetchExecutor(MeterRegistry meterRegistry) {
+        ExecutorService executor = newExecutor(mode, Math.max(1, prefetchParallelism), "github-prefetch");
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "github-prefetch");
+    }
+
+    // Bulk batches list every user's repositories here before any commit is fetched. A listing blocks until
+    // all of its pages arrive, so running them on githubExecutor would hold the threads the fan-out needs
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService githubListingExecutor(MeterRegistry meterRegistry) {
+        ExecutorService executor = newExecutor(mode, Math.max(1, listingPoolSize), "github-listing");
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "github-listing");
+    }
+
+    // A virtual thread per task, or a pool of `threads` platform threads; threads are named after the executor
+    private static ExecutorService newExecutor(String mode, int threads, String name) {
+        return switch (mode.toLowerCase()) {
+            case "virtual" -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-vt-", 0).factory());
+            case "fixed" -> Executors.newFixedThreadPool(threads, Thread.ofPlatform().name(name + "-pool-", 0).factory());
+            default -> throw new IllegalArgumentException("Unknown github.executor.mode: " + mode + " (expected virtual or fixed)");
+        };
+    }
+}
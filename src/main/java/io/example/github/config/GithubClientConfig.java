@@ -1,25 +1,99 @@
 package io.example.github.config;
 
+import io.example.github.client.GzipResponseInterceptor;
+import io.example.github.client.InstrumentedHttpClient;
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.client.UpstreamMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class GithubClientConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(GithubClientConfig.class);
+
     @Value("${github.base-url}")
     private String baseUrl;
 
     @Value("${github.token:}")
     private String token;
 
+    @Value("${github.client.http.version:HTTP_2}")
+    private HttpClient.Version httpVersion;
+
+    @Value("${github.client.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${github.client.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${github.client.http.pool-size:50}")
+    private int poolSize;
+
+    @Value("${github.client.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${github.client.http.compression:true}")
+    private boolean compression;
+
+    // One client for all GitHub calls, so connections (a single multiplexed one over HTTP/2) are reused.
+    // The JDK client reads its pool settings from system properties once; -D on the command line wins.
+    @Bean(destroyMethod = "close")
+    public HttpClient githubHttpClient(MeterRegistry meterRegistry) {
+        setDefault("jdk.httpclient.connectionPoolSize", String.valueOf(poolSize));
+        setDefault("jdk.httpclient.keepalive.timeout", String.valueOf(keepAlive.toSeconds()));
+        setDefault("jdk.httpclient.keepalive.timeout.h2", String.valueOf(keepAlive.toSeconds()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(connectTimeout)
+                // GitHub redirects renamed and transferred repositories
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        log.info("GitHub transport: {}, connect timeout {}, read timeout {}, pool size {}, keep-alive {}, compression {}",
+                httpVersion, connectTimeout, readTimeout, poolSize, keepAlive, compression);
+        return new InstrumentedHttpClient(client, meterRegistry);
+    }
+
     @Bean
-    public RestClient githubRestClient() {
+    public RestClient githubRestClient(HttpClient githubHttpClient, RateLimitScheduler rateLimitScheduler,
+                                       UpstreamMetrics upstreamMetrics) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(githubHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
         RestClient.Builder builder = RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                // Every upstream call reports the budget GitHub sends back; callers wait for budget before
+                // taking an upstream slot, so only the exchange itself is timed here
+                .requestInterceptor((request, body, execution) -> {
+                    Timer.Sample sample = upstreamMetrics.start();
+                    ClientHttpResponse response;
+                    try {
+                        response = execution.execute(request, body);
+                    } catch (IOException ex) {
+                        upstreamMetrics.stop(sample, request.getURI().getPath(), "IO_ERROR");
+                        throw ex;
+                    }
+                    upstreamMetrics.stop(sample, request.getURI().getPath(), String.valueOf(response.getStatusCode().value()));
+                    rateLimitScheduler.update(response.getHeaders(), response.getStatusCode());
+                    return response;
+                })
+                .requestInterceptors(interceptors -> {
+                    if (compression) interceptors.add(new GzipResponseInterceptor());
+                })
                 .defaultHeader(HttpHeaders.ACCEPT, "application/vnd.github+json")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader("X-GitHub-Api-Version", "2022-11-28");
@@ -29,4 +103,8 @@ public class GithubClientConfig {
         }
         return builder.build();
     }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) System.setProperty(property, value);
+    }
 }
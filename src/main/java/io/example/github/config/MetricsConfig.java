@@ -0,0 +1,85 @@
+package io.example.github.config;
+
+import io.example.github.client.ConditionalRequestCache;
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.client.UpstreamLimiter;
+import io.example.github.service.ActivityAggregator;
+import io.example.github.service.CommitWindowStore;
+import io.example.github.service.CursorSnapshots;
+import io.example.github.service.RepoListCache;
+import io.example.github.store.ActivityStore;
+import io.example.github.util.TtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    // Cache efficiency under the standard cache.* names, plus how busy the upstream limiter is
+    @Bean
+    public MeterBinder githubCacheMetrics(RepoListCache repoCache, CommitWindowStore commitWindows,
+                                          ConditionalRequestCache conditionalCache, ActivityStore activityStore,
+                                          CursorSnapshots cursorSnapshots, ActivityAggregator aggregator) {
+        return registry -> {
+            bindCache(registry, "repos", repoCache, RepoListCache::stats, RepoListCache::size);
+            bindCache(registry, "commit-windows", commitWindows, CommitWindowStore::stats, CommitWindowStore::size);
+            bindCache(registry, "cursor-snapshots", cursorSnapshots, CursorSnapshots::stats, CursorSnapshots::size);
+            bindCache(registry, "activity-stats", aggregator, ActivityAggregator::cacheStats, ActivityAggregator::size);
+            cacheSize(registry, "conditional", conditionalCache, ConditionalRequestCache::size);
+            cacheSize(registry, "activity-store", activityStore, ActivityStore::size);
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamLimiterMetrics(UpstreamLimiter limiter) {
+        return registry -> {
+            Gauge.builder("github.upstream.in-flight", limiter, UpstreamLimiter::getInFlight)
+                    .description("GitHub calls in flight").register(registry);
+            Gauge.builder("github.upstream.queued", limiter, UpstreamLimiter::getQueued)
+                    .description("GitHub calls waiting for a free upstream slot").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitScheduler rateLimit) {
+        return registry -> {
+            FunctionCounter.builder("github.ratelimit.rejected", rateLimit, RateLimitScheduler::getRejected)
+                    .description("Upstream calls refused because the rate limit budget could not be met in time")
+                    .register(registry);
+            Gauge.builder("github.ratelimit.limit", rateLimit, s -> s.snapshot().limit()).register(registry);
+            Gauge.builder("github.ratelimit.remaining", rateLimit, s -> s.snapshot().remaining())
+                    .description("Requests left in the current GitHub rate limit window").register(registry);
+            Gauge.builder("github.ratelimit.reset", rateLimit, s -> s.snapshot().secondsUntilReset())
+                    .baseUnit("seconds").register(registry);
+            Gauge.builder("github.ratelimit.tokens", rateLimit, s -> s.snapshot().tokens()).register(registry);
+            Gauge.builder("github.ratelimit.waiting", rateLimit, RateLimitScheduler::getWaiting)
+                    .description("Upstream calls queued waiting for rate limit budget").register(registry);
+        };
+    }
+
+    // Meters hold the cache weakly, so they are registered against the cache bean itself
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, Function<T, TtlCache.Stats> stats,
+                                      ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).hits())
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).misses())
+                .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> {
+                    TtlCache.Stats s = stats.apply(c);
+                    return s.evictions() + s.expirations();
+                })
+                .tags("cache", name).register(registry);
+        cacheSize(registry, name, cache, size);
+    }
+
+    private static <T> void cacheSize(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> size) {
+        Gauge.builder("cache.size", cache, size).tags("cache", name).register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package io.example.github.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> jacksonBuilder;
+
+    public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> jacksonBuilder) {
+        this.jacksonBuilder = jacksonBuilder;
+    }
+
+    // CBOR and Smile for clients that ask for them in Accept, written with the same Jackson settings as JSON.
+    // They go after the JSON converter, so requests without a preference keep getting JSON.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(builder().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(builder().factory(new SmileFactory()).build()));
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return jacksonBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+    }
+}
@@ -1,19 +1,38 @@
 package io.example.github.controller;
 
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
+import io.example.github.model.BulkActivityRequest;
+import io.example.github.model.CursorPage;
 import io.example.github.model.Page;
 import io.example.github.model.RepoActivity;
 import io.example.github.model.RepoSummary;
+import io.example.github.service.ActivityStream;
 import io.example.github.service.GithubService;
+import io.example.github.service.HotActivityRefresher;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/github")
@@ -22,9 +41,14 @@ public class GithubController {
 
     private static final Logger log = LoggerFactory.getLogger(GithubController.class);
     private final GithubService githubService;
+    private final HotActivityRefresher hotActivity;
 
-    public GithubController(GithubService githubService) {
+    @Value("${github.stream.timeout:5m}")
+    private Duration streamTimeout;
+
+    public GithubController(GithubService githubService, HotActivityRefresher hotActivity) {
         this.githubService = githubService;
+        this.hotActivity = hotActivity;
     }
 
     @GetMapping("/activity/{username}")
@@ -32,12 +56,19 @@ public class GithubController {
             @PathVariable("username") String username,
             @RequestParam(name = "page", defaultValue = "0") @Min(0) int page,
             @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size,
-            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs
     ) {
         log.info("Received request to fetch activity for username: {}, page: {}, size: {}, limit: {}", 
                 username, page, size, limit);
 
-        Page<RepoActivity> data = githubService.fetchActivityAsync(username, limit, page, size);
+        // Frequently requested users are kept precomputed in the background; those pages are returned at once
+        // and only ever hold complete results, so timeoutMs does not apply to them
+        Page<RepoActivity> data = hotActivity.page(username, limit, page, size);
+        if (data == null) {
+            data = githubService.fetchActivityAsync(username, limit, page, size,
+                    timeoutMs != null ? Duration.ofMillis(timeoutMs) : null);
+        }
         
         log.info("Successfully fetched {} repository activities for username: {} (page {} of {})", 
                 data.getNumberOfElements(), username, page, data.getTotalPages());
@@ -45,6 +76,86 @@ public class GithubController {
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
 
+    @GetMapping("/activity/{username}/stats")
+    public ResponseEntity<ActivityStats> getActivityStats(
+            @PathVariable("username") String username,
+            @RequestParam(name = "days", defaultValue = "30") @Min(1) @Max(365) int days
+    ) {
+        log.info("Received request to fetch activity stats for username: {} over {} days", username, days);
+
+        ActivityStats data = githubService.fetchActivityStats(username, days);
+
+        return new ResponseEntity<>(data, HttpStatus.OK);
+    }
+
+    @GetMapping("/activity/{username}/cursor")
+    public ResponseEntity<CursorPage<RepoActivity>> getActivityByCursor(
+            @PathVariable("username") String username,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs
+    ) {
+        log.info("Received request to fetch activity by cursor for username: {}, size: {}, limit: {}", username, size, limit);
+
+        CursorPage<RepoActivity> data = githubService.fetchActivityByCursor(username, limit, size, cursor,
+                timeoutMs != null ? Duration.ofMillis(timeoutMs) : null);
+
+        return new ResponseEntity<>(data, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/activity/{username}/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public DeferredResult<ResponseEntity<ResponseBodyEmitter>> streamActivity(
+            @PathVariable("username") String username,
+            @RequestParam(name = "page", defaultValue = "0") @Min(0) int page,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        log.info("Received request to stream activity for username: {}, page: {}, size: {}, limit: {} as {}",
+                username, page, size, limit, sse ? "SSE" : "NDJSON");
+
+        ResponseBodyEmitter emitter = newEmitter(sse);
+        // Each repository is written and flushed as soon as its commits arrive
+        ActivityStream stream = githubService.streamActivity(username, limit, page, size,
+                activity -> send(emitter, "activity", activity));
+        return respond(emitter, sse, stream, "activity for username: " + username + " (page " + page + ")");
+    }
+
+    @PostMapping("/activity/bulk")
+    public ResponseEntity<BulkActivity> getBulkActivity(
+            @RequestBody @Valid BulkActivityRequest request,
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit
+    ) {
+        log.info("Received request to fetch bulk activity for {} usernames, limit: {}", request.getUsernames().size(), limit);
+
+        BulkActivity data = githubService.fetchBulkActivity(request.getUsernames(), limit);
+
+        log.info("Successfully fetched bulk activity: {} distinct repositories for {} usernames",
+                data.getRepositories(), data.getUsers().size());
+
+        return new ResponseEntity<>(data, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/activity/bulk/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public DeferredResult<ResponseEntity<ResponseBodyEmitter>> streamBulkActivity(
+            @RequestBody @Valid BulkActivityRequest request,
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        log.info("Received request to stream bulk activity for {} usernames, limit: {} as {}",
+                request.getUsernames().size(), limit, sse ? "SSE" : "NDJSON");
+
+        ResponseBodyEmitter emitter = newEmitter(sse);
+        ActivityStream stream = githubService.streamBulkActivity(request.getUsernames(), limit,
+                activity -> send(emitter, "activity", activity));
+        return respond(emitter, sse, stream, "bulk activity for " + request.getUsernames().size() + " usernames");
+    }
+
     @GetMapping("/repo/{username}")
     public ResponseEntity<Page<RepoSummary>> getRepositories(
             @PathVariable("username") String username,
@@ -58,6 +169,19 @@ public class GithubController {
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
 
+    @GetMapping("/repo/{username}/cursor")
+    public ResponseEntity<CursorPage<RepoSummary>> getRepositoriesByCursor(
+            @PathVariable("username") String username,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "per_page", defaultValue = "30") @Min(1) @Max(100) int perPage
+    ) {
+        log.info("Received request to fetch repositories by cursor for username: {} with per_page: {}", username, perPage);
+
+        CursorPage<RepoSummary> data = githubService.fetchRepositoriesByCursor(username, perPage, cursor);
+
+        return new ResponseEntity<>(data, HttpStatus.OK);
+    }
+
     @GetMapping("/repo/{username}/page")
     public ResponseEntity<Page<RepoSummary>> getRepositoriesByPage(
             @PathVariable("username") String username,
@@ -74,4 +198,62 @@ public class GithubController {
         
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
+
+    // The status is only sent once the stream has started, so a listing that fails still gets its own
+    // error status; the request thread is released meanwhile
+    private DeferredResult<ResponseEntity<ResponseBodyEmitter>> respond(ResponseBodyEmitter emitter, boolean sse,
+                                                                        ActivityStream stream, String what) {
+        DeferredResult<ResponseEntity<ResponseBodyEmitter>> response =
+                new DeferredResult<>(streamTimeout != null ? streamTimeout.toMillis() : null);
+        response.onTimeout(() -> stream.done().cancel(true));
+        response.onError(ex -> stream.done().cancel(true));
+        stream.started().whenComplete((v, ex) -> {
+            if (ex != null) {
+                response.setErrorResult(ex instanceof CompletionException ? ex.getCause() : ex);
+                return;
+            }
+            bind(emitter, stream.done(), what);
+            response.setResult(ResponseEntity.ok()
+                    .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                    .body(emitter));
+        });
+        return response;
+    }
+
+    private ResponseBodyEmitter newEmitter(boolean sse) {
+        Long timeout = streamTimeout != null ? streamTimeout.toMillis() : null;
+        return sse ? new SseEmitter(timeout) : new ResponseBodyEmitter(timeout);
+    }
+
+    // Writes one item as a named SSE event or as one NDJSON line, flushed right away
+    private static void send(ResponseBodyEmitter emitter, String event, Object item) {
+        try {
+            synchronized (emitter) {
+                if (emitter instanceof SseEmitter events) {
+                    events.send(SseEmitter.event().name(event).data(item, MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(item, MediaType.APPLICATION_JSON);
+                    emitter.send("\n", MediaType.TEXT_PLAIN);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Client disconnects and timeouts stop the fetches that have not started yet
+    private static void bind(ResponseBodyEmitter emitter, CompletableFuture<Void> stream, String what) {
+        emitter.onTimeout(() -> stream.cancel(true));
+        emitter.onError(ex -> stream.cancel(true));
+        emitter.onCompletion(() -> stream.cancel(true));
+        stream.whenComplete((v, ex) -> {
+            if (ex == null) {
+                log.info("Finished streaming {}", what);
+                emitter.complete();
+            } else if (!(ex instanceof CancellationException)) {
+                log.warn("Streaming {} failed: {}", what, ex.getMessage());
+                emitter.completeWithError(ex);
+            }
+        });
+    }
 }
@@ -0,0 +1,79 @@
+package io.example.github.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.example.github.service.WebhookIngestService;
+import io.example.github.util.WebhookSignatures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Receives GitHub webhook deliveries. Configure the webhook with content type {@code application/json}
+ * and the same secret as {@code github.webhook.secret}; deliveries without a valid signature are rejected.
+ */
+@RestController
+@RequestMapping("/api/github/webhooks")
+public class WebhookController {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookController.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD = new TypeReference<>() {
+    };
+
+    private final WebhookIngestService ingestService;
+    private final ObjectMapper mapper;
+    private final String secret;
+
+    public WebhookController(WebhookIngestService ingestService, ObjectMapper mapper,
+                             @Value("${github.webhook.secret:}") String secret) {
+        this.ingestService = ingestService;
+        this.mapper = mapper;
+        this.secret = secret;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> receive(
+            @RequestHeader(name = "X-GitHub-Event") String event,
+            @RequestHeader(name = "X-GitHub-Delivery", required = false) String delivery,
+            @RequestHeader(name = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] body
+    ) throws IOException {
+        if (secret == null || secret.isBlank()) {
+            log.warn("Rejected webhook delivery {}: github.webhook.secret is not configured", delivery);
+            return reject(HttpStatus.FORBIDDEN, "Webhook secret is not configured");
+        }
+        if (!WebhookSignatures.isValid(secret, body, signature)) {
+            log.warn("Rejected webhook delivery {} ({}): invalid signature", delivery, event);
+            return reject(HttpStatus.UNAUTHORIZED, "Invalid X-Hub-Signature-256");
+        }
+
+        Map<String, Object> payload = mapper.readValue(body, PAYLOAD);
+        int applied = switch (event) {
+            case "push" -> ingestService.applyPush(payload);
+            case "repository" -> ingestService.applyRepository(payload);
+            default -> 0;
+        };
+        log.info("Received webhook delivery {} ({}), applied {} changes", delivery, event, applied);
+
+        return ResponseEntity.accepted().body(Map.of(
+                "event", event,
+                "applied", applied
+        ));
+    }
+
+    private static ResponseEntity<?> reject(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", status.value(),
+                "error", status.getReasonPhrase(),
+                "message", message
+        ));
+    }
+}
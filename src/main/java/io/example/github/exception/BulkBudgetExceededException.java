@@ -0,0 +1,16 @@
+package io.example.github.exception;
+
+// Raised before any commits are fetched when a bulk batch needs more than its share of the rate limit budget
+public class BulkBudgetExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public BulkBudgetExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package io.example.github.exception;
+
+// Raised once the snapshot a cursor points into has expired; the client starts again without a cursor
+public class CursorExpiredException extends RuntimeException {
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
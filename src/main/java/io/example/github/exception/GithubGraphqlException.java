@@ -0,0 +1,18 @@
+package io.example.github.exception;
+
+import java.util.List;
+
+// Raised when the GitHub GraphQL API answers 200 OK but reports errors in the payload
+public class GithubGraphqlException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public GithubGraphqlException(List<String> errors) {
+        super("GitHub GraphQL query failed: " + String.join("; ", errors));
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
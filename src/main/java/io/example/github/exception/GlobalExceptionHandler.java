@@ -46,6 +46,75 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<?> unavailable(UpstreamUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", 503,
+                        "error", "Upstream Unavailable",
+                        "message", ex.getMessage(),
+                        "retryAfter", ex.getRetryAfterSeconds()
+                ));
+    }
+
+    @ExceptionHandler(BulkBudgetExceededException.class)
+    public ResponseEntity<?> bulkBudget(BulkBudgetExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", 429,
+                        "error", "Rate limit exceeded",
+                        "message", ex.getMessage(),
+                        "retryAfter", ex.getRetryAfterSeconds()
+                ));
+    }
+
+    @ExceptionHandler(RateLimitBudgetExceededException.class)
+    public ResponseEntity<?> rateLimitBudget(RateLimitBudgetExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", 429,
+                        "error", "Rate limit exceeded",
+                        "message", ex.getMessage(),
+                        "retryAfter", ex.getRetryAfterSeconds()
+                ));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> invalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", 400,
+                "error", "Invalid Cursor",
+                "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<?> cursorExpired(CursorExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", 410,
+                "error", "Cursor Expired",
+                "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(GithubGraphqlException.class)
+    public ResponseEntity<?> graphqlErr(GithubGraphqlException ex) {
+        return ResponseEntity.status(502).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", 502,
+                "error", "Upstream Error",
+                "message", ex.getMessage()
+        ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> badReq(MethodArgumentNotValidException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
@@ -0,0 +1,9 @@
+package io.example.github.exception;
+
+// Raised for a cursor that cannot be decoded or that points into another owner's or endpoint's listing
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package io.example.github.exception;
+
+// Raised without calling GitHub when the rate limit budget would not allow the call within max-wait
+public class RateLimitBudgetExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitBudgetExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
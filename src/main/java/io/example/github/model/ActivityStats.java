@@ -0,0 +1,27 @@
+package io.example.github.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ActivityStats {
+
+    // UTC days, both inclusive
+    private LocalDate from;
+    private LocalDate to;
+    private long totalCommits;
+    // Commit count of every day from `from` to `to`, oldest first
+    private int[] perDay;
+    // Most active first
+    private Map<String, Long> perAuthor;
+    private Map<String, Long> perRepository;
+    private int repositories;
+    // False when some repository's commits over the window could not all be read (deadline, failure,
+    // or more than a sync reads), so the counts are a lower bound
+    private boolean complete;
+
+}
@@ -0,0 +1,24 @@
+package io.example.github.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class BulkActivity {
+
+    // Activity per requested user, repositories in listing order
+    private Map<String, List<RepoActivity>> users;
+    // Users whose repositories could not be listed, and repositories whose commits could not be fetched
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> errors;
+    // Distinct repositories fetched for the batch
+    private int repositories;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
+
+}
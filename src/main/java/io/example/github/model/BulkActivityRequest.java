@@ -0,0 +1,21 @@
+package io.example.github.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkActivityRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotBlank String> usernames;
+
+}
@@ -1,8 +1,10 @@
 package io.example.github.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Data
 public class CommitInfo {
@@ -13,5 +15,9 @@ public class CommitInfo {
     private String authorEmail;
     private OffsetDateTime timestamp;
     private String htmlUrl;
+    // Parent SHAs of commits fetched from the REST API, only used to check that a since= sync connects
+    // to the commit window; not part of the API and not persisted with windows
+    @JsonIgnore
+    private List<String> parents;
 
 }
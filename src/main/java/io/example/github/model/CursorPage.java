@@ -0,0 +1,21 @@
+package io.example.github.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    // Opaque token for the next page, null on the last one
+    private String nextCursor;
+    // Size of the snapshot being paged through
+    private int totalElements;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
+
+}
@@ -10,8 +10,14 @@ public class Page<T> {
     private final int totalPages;
     private final boolean hasNext;
     private final boolean hasPrevious;
+    private final boolean stale;
 
     public Page(List<T> content, int pageNumber, int pageSize, long totalElements) {
+        this(content, pageNumber, pageSize, totalElements, false);
+    }
+
+    // stale: some of the content is last known good data served while GitHub is unavailable
+    public Page(List<T> content, int pageNumber, int pageSize, long totalElements, boolean stale) {
         this.content = content;
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
@@ -19,6 +25,7 @@ public class Page<T> {
         this.totalPages = (int) Math.ceil((double) totalElements / pageSize);
         this.hasNext = pageNumber < totalPages - 1;
         this.hasPrevious = pageNumber > 0;
+        this.stale = stale;
     }
 
     public List<T> getContent() {
@@ -49,6 +56,10 @@ public class Page<T> {
         return hasPrevious;
     }
 
+    public boolean isStale() {
+        return stale;
+    }
+
     public boolean isEmpty() {
         return content.isEmpty();
     }
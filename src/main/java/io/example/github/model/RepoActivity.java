@@ -1,5 +1,7 @@
 package io.example.github.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -11,5 +13,25 @@ public class RepoActivity {
 
     private RepoSummary repository;
     private List<CommitInfo> commits;
+    // Commits are last known good data, GitHub could not be reached for this repository
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
+    private Status status;
+
+    public RepoActivity(RepoSummary repository, List<CommitInfo> commits) {
+        this(repository, commits, false);
+    }
+
+    public RepoActivity(RepoSummary repository, List<CommitInfo> commits, boolean stale) {
+        this(repository, commits, stale, commits == null || commits.isEmpty() ? Status.EMPTY_REPOSITORY : Status.OK);
+    }
+
+    public enum Status {
+        @JsonProperty("ok") OK,
+        // The request's deadline passed before the commits arrived
+        @JsonProperty("timed-out") TIMED_OUT,
+        @JsonProperty("error") ERROR,
+        @JsonProperty("empty-repository") EMPTY_REPOSITORY
+    }
 
 }
@@ -0,0 +1,27 @@
+package io.example.github.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One item of a streamed bulk activity batch: a repository of {@code username} with its commits, or an
+ * {@code error} when the user's repositories could not be listed (no repository then) or the repository's
+ * commits could not be fetched.
+ */
+@Data
+@AllArgsConstructor
+public class UserActivity {
+
+    private String username;
+    @JsonUnwrapped
+    private RepoActivity activity;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public UserActivity(String username, RepoActivity activity) {
+        this(username, activity, null);
+    }
+
+}
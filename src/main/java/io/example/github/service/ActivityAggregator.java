@@ -0,0 +1,239 @@
+package io.example.github.service;
+
+import io.example.github.model.ActivityStats;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import io.example.github.util.TtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commit counts per repository, kept up to date as commits arrive from GitHub or webhooks, so statistics
+ * are summed from day buckets instead of re-scanning commit lists. Every repository holds a ring of
+ * {@code horizon-days} daily counters, plus one per author; commits are counted once by sha, so feeding
+ * the same commits again (overlapping syncs, replayed pushes) changes nothing.
+ * <p>
+ * Commits that merely arrive cover whatever days they happen to fall on. Only a sync that read every
+ * commit from some day on marks the repository as covered from that day, and fresh for {@code max-age}.
+ */
+@Component
+public class ActivityAggregator {
+
+    private static final String UNKNOWN_AUTHOR = "unknown";
+
+    private final TtlCache<String, RepoAggregate> aggregates;
+    private final int horizonDays;
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    @Autowired
+    public ActivityAggregator(@Value("${github.stats.horizon-days:90}") int horizonDays,
+                              @Value("${github.stats.max-age:5m}") Duration maxAge,
+                              @Value("${github.stats.max-repositories:10000}") int maxRepositories) {
+        this(horizonDays, maxAge, maxRepositories, Clock.systemUTC());
+    }
+
+    ActivityAggregator(int horizonDays, Duration maxAge, int maxRepositories, Clock clock) {
+        this.horizonDays = Math.max(1, horizonDays);
+        this.maxAgeMillis = maxAge.toMillis();
+        this.clock = clock;
+        // A repository not fed for the whole horizon has nothing left to count
+        this.aggregates = new TtlCache<>(maxRepositories, Duration.ofDays(this.horizonDays));
+    }
+
+    public void record(String owner, String repo, List<CommitInfo> commits) {
+        aggregate(owner, repo).add(commits, today());
+    }
+
+    /**
+     * Counts the commits of a sync that listed every commit of the repository at or after {@code since}
+     * (null for its whole history). A {@code truncated} listing only covers the days after its oldest commit.
+     */
+    public void recordSync(String owner, String repo, List<CommitInfo> commits, LocalDate since, boolean truncated) {
+        long coveredFrom;
+        if (truncated) {
+            coveredFrom = commits.stream()
+                    .filter(c -> c.getTimestamp() != null)
+                    .mapToLong(c -> c.getTimestamp().atZoneSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay() + 1)
+                    .min().orElse(Long.MAX_VALUE);
+        } else {
+            coveredFrom = since != null ? since.toEpochDay() : Long.MIN_VALUE;
+        }
+        aggregate(owner, repo).sync(commits, today(), coveredFrom, clock.millis());
+    }
+
+    // Whether a sync within max-age covered every commit from `from` on, so statistics need no fresh fetch
+    public boolean isFresh(String owner, String repo, LocalDate from) {
+        RepoAggregate aggregate = aggregates.get(key(owner, repo));
+        return aggregate != null && aggregate.covers(from.toEpochDay())
+                && clock.millis() - aggregate.updatedAt() < maxAgeMillis;
+    }
+
+    // First UTC day of the last `days` days, today included; windows beyond the horizon are clamped to it
+    public LocalDate windowStart(int days) {
+        return LocalDate.ofEpochDay(today() - Math.max(1, Math.min(days, horizonDays)) + 1);
+    }
+
+    /**
+     * Sums the last {@code days} UTC days (today included, at most {@code horizon-days}) over `repos`.
+     * The result is complete when a sync covered the whole window of every repository.
+     */
+    public ActivityStats stats(String username, List<RepoSummary> repos, int days) {
+        long today = today();
+        long fromDay = windowStart(days).toEpochDay();
+
+        int[] perDay = new int[(int) (today - fromDay + 1)];
+        Map<String, Long> perAuthor = new HashMap<>();
+        Map<String, Long> perRepository = new LinkedHashMap<>();
+        long total = 0;
+        boolean complete = true;
+        for (RepoSummary repo : repos) {
+            RepoAggregate aggregate = aggregates.get(repo.getFullName() != null
+                    ? repo.getFullName().toLowerCase() : key(username, repo.getName()));
+            complete &= aggregate != null && aggregate.covers(fromDay);
+            long count = aggregate == null ? 0 : aggregate.sum(fromDay, perDay, perAuthor);
+            if (count > 0) perRepository.put(repo.getFullName() != null ? repo.getFullName() : repo.getName(), count);
+            total += count;
+        }
+        return new ActivityStats(LocalDate.ofEpochDay(fromDay), LocalDate.ofEpochDay(today), total, perDay,
+                byCountDescending(perAuthor), byCountDescending(perRepository), repos.size(), complete);
+    }
+
+    public int size() {
+        return aggregates.size();
+    }
+
+    public TtlCache.Stats cacheStats() {
+        return aggregates.stats();
+    }
+
+    private RepoAggregate aggregate(String owner, String repo) {
+        String key = key(owner, repo);
+        synchronized (aggregates) {
+            RepoAggregate aggregate = aggregates.get(key);
+            if (aggregate == null) aggregate = new RepoAggregate(horizonDays);
+            aggregates.put(key, aggregate);
+            return aggregate;
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock.withZone(ZoneOffset.UTC)).toEpochDay();
+    }
+
+    private static Map<String, Long> byCountDescending(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private static String key(String owner, String repo) {
+        return (owner + "/" + repo).toLowerCase();
+    }
+
+    /**
+     * Day counters of one repository in rings indexed by epoch day, covering the {@code horizon} days up
+     * to the newest commit seen; older commits fall out as newer days move in. Commits dated after today
+     * (skewed author clocks) are counted on today, so they cannot push the ring past real days.
+     */
+    static final class RepoAggregate {
+
+        private final int horizon;
+        private final int[] days;
+        private final Map<String, int[]> authors = new HashMap<>();
+        // Epoch day of every counted commit, to count each sha once
+        private final Map<String, Long> seen = new HashMap<>();
+        private long newestDay = Long.MIN_VALUE;
+        // Epoch day from which syncs have seen every commit, and the day of the last sync
+        private long coveredFrom = Long.MAX_VALUE;
+        private long syncedDay = Long.MIN_VALUE;
+        private volatile long updatedAt = Long.MIN_VALUE;
+
+        RepoAggregate(int horizon) {
+            this.horizon = horizon;
+            this.days = new int[horizon];
+        }
+
+        synchronized void sync(List<CommitInfo> commits, long today, long coveredFrom, long now) {
+            add(commits, today);
+            // Earlier coverage still counts when this sync reaches back to the previous one
+            this.coveredFrom = coveredFrom <= syncedDay ? Math.min(this.coveredFrom, coveredFrom) : coveredFrom;
+            syncedDay = today;
+            updatedAt = now;
+        }
+
+        synchronized boolean covers(long fromDay) {
+            return coveredFrom <= fromDay;
+        }
+
+        synchronized void add(List<CommitInfo> commits, long today) {
+            for (CommitInfo commit : commits) {
+                if (commit.getSha() == null || commit.getTimestamp() == null) continue;
+                long day = Math.min(today, commit.getTimestamp().atZoneSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay());
+                if (day > newestDay) advanceTo(day);
+                if (day <= newestDay - horizon || seen.putIfAbsent(commit.getSha(), day) != null) continue;
+                int slot = slot(day);
+                days[slot]++;
+                String author = commit.getAuthorName() != null ? commit.getAuthorName() : UNKNOWN_AUTHOR;
+                authors.computeIfAbsent(author, a -> new int[horizon])[slot]++;
+            }
+        }
+
+        // Adds the days from `fromDay` on to perDay and perAuthor, returns the repository's total
+        synchronized long sum(long fromDay, int[] perDay, Map<String, Long> perAuthor) {
+            long total = 0;
+            long first = Math.max(fromDay, newestDay - horizon + 1);
+            long last = Math.min(fromDay + perDay.length - 1, newestDay);
+            for (long day = first; day <= last; day++) {
+                int count = days[slot(day)];
+                perDay[(int) (day - fromDay)] += count;
+                total += count;
+            }
+            for (Map.Entry<String, int[]> author : authors.entrySet()) {
+                long count = 0;
+                for (long day = first; day <= last; day++) count += author.getValue()[slot(day)];
+                if (count > 0) perAuthor.merge(author.getKey(), count, Long::sum);
+            }
+            return total;
+        }
+
+        long updatedAt() {
+            return updatedAt;
+        }
+
+        // Moves the ring forward, clearing the slots of the days that drop out
+        private void advanceTo(long day) {
+            if (newestDay == Long.MIN_VALUE || day - newestDay >= horizon) {
+                Arrays.fill(days, 0);
+                authors.clear();
+                seen.clear();
+            } else {
+                for (long d = newestDay + 1; d <= day; d++) {
+                    int slot = slot(d);
+                    days[slot] = 0;
+                    authors.values().forEach(counts -> counts[slot] = 0);
+                }
+                authors.values().removeIf(counts -> Arrays.stream(counts).allMatch(c -> c == 0));
+                seen.values().removeIf(d -> d <= day - horizon);
+            }
+            newestDay = day;
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) horizon);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.example.github.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A stream of activity being delivered to a consumer. {@code started} completes once the repositories to
+ * stream are known, before any of them is delivered, or fails when they cannot be listed; {@code done}
+ * completes after the last one. Cancelling {@code done} stops the fetches that have not started yet.
+ */
+public record ActivityStream(CompletableFuture<Void> started, CompletableFuture<Void> done) {
+}
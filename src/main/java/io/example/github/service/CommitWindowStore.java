@@ -0,0 +1,157 @@
+package io.example.github.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.example.github.model.CommitInfo;
+import io.example.github.store.ActivityStore;
+import io.example.github.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The newest commits seen per repository, newest first, plus the high-water mark (newest SHA and
+ * timestamp) they define. Later syncs only ask GitHub for commits since that mark and merge them in,
+ * as long as those connect to the window (see {@link Window#isContinuedBy}).
+ * Windows expire after {@code ttl} so history rewrites (force pushes) are picked up eventually.
+ * Every window is also written to the {@link ActivityStore}, which a restarted process reads through.
+ * <p>
+ * Repositories whose pushes arrive by webhook are marked push-tracked for {@code trust-ttl} after each
+ * delivery; their windows are current without asking GitHub.
+ */
+@Component
+public class CommitWindowStore {
+
+    private static final TypeReference<Window> WINDOW = new TypeReference<>() {
+    };
+
+    private final TtlCache<String, Window> windows;
+    private final TtlCache<String, Boolean> pushTracked;
+    private final ActivityStore persistent;
+    private final Duration ttl;
+
+    public CommitWindowStore(@Value("${github.cache.commit-windows.max-entries:5000}") int maxEntries,
+                             @Value("${github.cache.commit-windows.ttl:1h}") Duration ttl,
+                             @Value("${github.webhook.trust-ttl:1h}") Duration pushTrust,
+                             ActivityStore persistent) {
+        this.windows = new TtlCache<>(maxEntries, ttl);
+        this.pushTracked = new TtlCache<>(maxEntries, pushTrust);
+        this.persistent = persistent;
+        this.ttl = ttl;
+    }
+
+    public Window get(String username, String repo) {
+        Window window = windows.get(key(username, repo));
+        if (window == null) {
+            window = persistent.get(ActivityStore.commitWindowKey(username, repo), WINDOW, ttl);
+            if (window != null) windows.put(key(username, repo), window);
+        }
+        return window;
+    }
+
+    /**
+     * Stores a full fetch of the newest {@code capacity} commits, replacing any existing window.
+     */
+    public synchronized Window replace(String username, String repo, List<CommitInfo> newest, int capacity) {
+        return store(username, repo, new Window(trim(newest, capacity), capacity));
+    }
+
+    /**
+     * Merges commits fetched since the high-water mark into the stored window, deduplicated by SHA.
+     * A full page of new commits may have skipped some in between, so it replaces the window instead.
+     */
+    public synchronized Window merge(String username, String repo, List<CommitInfo> sinceMark, int capacity) {
+        Window current = get(username, repo);
+        if (current == null || sinceMark.size() >= capacity) {
+            return replace(username, repo, sinceMark, capacity);
+        }
+        List<CommitInfo> merged = new ArrayList<>(sinceMark);
+        Set<String> seen = new HashSet<>();
+        sinceMark.forEach(c -> seen.add(c.getSha()));
+        for (CommitInfo c : current.commits()) {
+            if (seen.add(c.getSha())) merged.add(c);
+        }
+        return store(username, repo, new Window(trim(merged, capacity), capacity));
+    }
+
+    public void invalidate(String username, String repo) {
+        windows.invalidate(key(username, repo));
+        pushTracked.invalidate(key(username, repo));
+    }
+
+    public void markPushTracked(String username, String repo) {
+        pushTracked.put(key(username, repo), Boolean.TRUE);
+    }
+
+    public boolean isPushTracked(String username, String repo) {
+        return pushTracked.get(key(username, repo)) != null;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    public TtlCache.Stats stats() {
+        return windows.stats();
+    }
+
+    private Window store(String username, String repo, Window window) {
+        windows.put(key(username, repo), window);
+        persistent.put(ActivityStore.commitWindowKey(username, repo), window);
+        return window;
+    }
+
+    private static List<CommitInfo> trim(List<CommitInfo> commits, int capacity) {
+        return List.copyOf(commits.subList(0, Math.min(capacity, commits.size())));
+    }
+
+    // GitHub logins and repository names are case-insensitive
+    private static String key(String username, String repo) {
+        return (username + "/" + repo).toLowerCase();
+    }
+
+    public record Window(List<CommitInfo> commits, int capacity) {
+
+        public String newestSha() {
+            return commits.isEmpty() ? null : commits.get(0).getSha();
+        }
+
+        public OffsetDateTime newestTimestamp() {
+            return commits.isEmpty() ? null : commits.get(0).getTimestamp();
+        }
+
+        /**
+         * Whether commits fetched since the mark connect to this window: the newest known commit is among
+         * them or a parent of one of them, and every new commit's parents are new as well or already known.
+         * Otherwise a merge brought in commits dated before the mark, or history was rewritten, and the
+         * window has to be fetched again.
+         */
+        public boolean isContinuedBy(List<CommitInfo> sinceMark) {
+            String newest = newestSha();
+            if (newest == null) return false;
+            Set<String> known = new HashSet<>();
+            commits.forEach(c -> known.add(c.getSha()));
+            Set<String> fetched = new HashSet<>();
+            sinceMark.forEach(c -> fetched.add(c.getSha()));
+            boolean linked = fetched.contains(newest);
+            for (CommitInfo c : sinceMark) {
+                if (known.contains(c.getSha()) || c.getParents() == null) continue;
+                for (String parent : c.getParents()) {
+                    if (parent.equals(newest)) linked = true;
+                    else if (!fetched.contains(parent) && !known.contains(parent)) return false;
+                }
+            }
+            return linked;
+        }
+
+        // Up to `limit` newest commits, if the window holds that many of the repository's commits
+        public List<CommitInfo> newest(int limit) {
+            return commits.subList(0, Math.min(limit, commits.size()));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.example.github.service;
+
+import io.example.github.exception.CursorExpiredException;
+import io.example.github.exception.InvalidCursorException;
+import io.example.github.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived snapshots of an owner's ordered repositories for cursor pagination. A cursor names a snapshot
+ * and an offset into it, so a later page is a lookup in the order of the first one, however pushes re-sort
+ * the owner's repositories meanwhile. Unknown cursors are answered with 400, expired snapshots with 410.
+ */
+@Component
+public class CursorSnapshots {
+
+    private final TtlCache<String, Snapshot> snapshots;
+
+    public CursorSnapshots(@Value("${github.cursor.max-snapshots:1000}") int maxSnapshots,
+                           @Value("${github.cursor.ttl:10m}") Duration ttl) {
+        this.snapshots = new TtlCache<>(maxSnapshots, ttl);
+    }
+
+    /**
+     * Snapshots `items` and returns the position of its first page; `kind` keeps cursors of one endpoint
+     * from being used on another.
+     */
+    public <T> Position<T> open(String kind, String username, List<T> items) {
+        String id = UUID.randomUUID().toString();
+        snapshots.put(id, new Snapshot(kind, username.toLowerCase(), List.copyOf(items)));
+        return new Position<>(id, List.copyOf(items), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Position<T> resume(String kind, String username, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        int colon = decoded.lastIndexOf(':');
+        int offset;
+        try {
+            offset = colon > 0 ? Integer.parseInt(decoded.substring(colon + 1)) : -1;
+        } catch (NumberFormatException ex) {
+            offset = -1;
+        }
+        if (offset < 0) throw new InvalidCursorException("Invalid cursor");
+
+        String id = decoded.substring(0, colon);
+        Snapshot snapshot = snapshots.get(id);
+        if (snapshot == null) throw new CursorExpiredException("Cursor expired, start again without a cursor");
+        if (!snapshot.kind().equals(kind) || !snapshot.username().equals(username.toLowerCase())) {
+            throw new InvalidCursorException("Cursor belongs to another listing");
+        }
+        return new Position<>(id, (List<T>) snapshot.items(), Math.min(offset, snapshot.items().size()));
+    }
+
+    public TtlCache.Stats stats() {
+        return snapshots.stats();
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private record Snapshot(String kind, String username, List<?> items) {
+    }
+
+    public record Position<T>(String snapshot, List<T> items, int offset) {
+
+        public List<T> page(int size) {
+            return items.subList(offset, Math.min(offset + size, items.size()));
+        }
+
+        // Cursor of the page after page(size), null when that was the last one
+        public String nextCursor(int size) {
+            int next = offset + size;
+            if (next >= items.size()) return null;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((snapshot + ":" + next).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package io.example.github.service;
 
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
+import io.example.github.model.CursorPage;
 import io.example.github.model.Page;
 import io.example.github.model.RepoActivity;
 import io.example.github.model.RepoSummary;
+import io.example.github.model.UserActivity;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GithubService {
 
@@ -14,6 +20,32 @@ public interface GithubService {
 
     Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size);
 
+    // Answers once `timeout` (null for the configured default) has passed with the repositories that are
+    // done; the rest are reported as timed out, failed ones as errors
+    Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size, Duration timeout);
+
+    // Commit counts per day, author and repository over the last `days` days, from counters kept up to date
+    // as commits arrive
+    ActivityStats fetchActivityStats(String username, int days);
+
+    // Lists the page off the calling thread, then hands each repository to onActivity as soon as its
+    // commits arrive
+    ActivityStream streamActivity(String username, int limit, int page, int size, Consumer<RepoActivity> onActivity);
+
+    // Pages through a snapshot of the owner's repositories taken for the first page (cursor null), so later
+    // pages keep its order; nextCursor of each page leads to the next one
+    CursorPage<RepoActivity> fetchActivityByCursor(String username, int limit, int size, String cursor, Duration timeout);
+
+    CursorPage<RepoSummary> fetchRepositoriesByCursor(String username, int size, String cursor);
+
+    // Activity of several users as one batch: a repository listed for more than one of them is fetched once,
+    // and all fetches of the batch share one in-flight limit and one slice of the rate limit budget
+    BulkActivity fetchBulkActivity(List<String> usernames, int limit);
+
+    // fetchBulkActivity, handing each (user, repository) to onActivity as soon as its commits arrive; the
+    // stream starts once every user is listed and the batch is admitted
+    ActivityStream streamBulkActivity(List<String> usernames, int limit, Consumer<UserActivity> onActivity);
+
     Page<RepoSummary> fetchRepositoriesWithPagination(String username, int perPage);
 
     Page<RepoSummary> fetchRepositoriesByPage(String username, int page, int perPage);
@@ -1,46 +1,117 @@
 package io.example.github.service;
 
+import io.example.github.client.CircuitBreaker;
 import io.example.github.client.GithubClient;
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.exception.BulkBudgetExceededException;
+import io.example.github.exception.RateLimitBudgetExceededException;
+import io.example.github.exception.UpstreamUnavailableException;
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
 import io.example.github.model.CommitInfo;
+import io.example.github.model.CursorPage;
 import io.example.github.model.Page;
 import io.example.github.model.PaginationResult;
 import io.example.github.model.RepoActivity;
 import io.example.github.model.RepoSummary;
+import io.example.github.model.UserActivity;
+import io.example.github.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @EnableAsync
 @Service
+@ConditionalOnProperty(name = "github.engine", havingValue = "rest", matchIfMissing = true)
 public class GithubServiceImpl implements GithubService {
 
     private static final Logger log = LoggerFactory.getLogger(GithubServiceImpl.class);
+    // GitHub caps per_page at 100
+    private static final int MAX_PER_PAGE = 100;
+    // A stats sync reads at most this many pages of commits per repository
+    private static final int MAX_STATS_PAGES = 10;
+    private static final String ACTIVITY_CURSOR = "activity";
+    private static final String REPOS_CURSOR = "repos";
     private final GithubClient client;
-    private final ExecutorService executor = Executors.newFixedThreadPool(10); // tune pool size
+    private final RepoListCache repoCache;
+    private final LastKnownGoodStore lastKnownGood;
+    private final CommitWindowStore commitWindows;
+    private final CursorSnapshots cursors;
+    private final ActivityAggregator aggregator;
+    private final ExecutorService executor;
+    private final ExecutorService listingExecutor;
+    private final RateLimitScheduler rateLimit;
+    private final Duration activityTimeout;
+    private final int streamMaxInFlight;
+    private final int bulkMaxInFlight;
+    private final double bulkRateLimitShare;
+    // Identical concurrent listings / commit fetches share one upstream call
+    private final SingleFlight<String, List<RepoSummary>> repoFlights = new SingleFlight<>();
+    private final SingleFlight<String, List<CommitInfo>> commitFlights = new SingleFlight<>();
 
-    public GithubServiceImpl(GithubClient client) {
+    public GithubServiceImpl(GithubClient client, RepoListCache repoCache, LastKnownGoodStore lastKnownGood,
+                             CommitWindowStore commitWindows, CursorSnapshots cursors, ActivityAggregator aggregator,
+                             @Qualifier("githubExecutor") ExecutorService executor,
+                             @Qualifier("githubListingExecutor") ExecutorService listingExecutor,
+                             RateLimitScheduler rateLimit,
+                             @Value("${github.activity.timeout:30s}") Duration activityTimeout,
+                             @Value("${github.stream.max-in-flight:16}") int streamMaxInFlight,
+                             @Value("${github.bulk.max-in-flight:32}") int bulkMaxInFlight,
+                             @Value("${github.bulk.rate-limit-share:0.5}") double bulkRateLimitShare) {
         this.client = client;
+        this.repoCache = repoCache;
+        this.lastKnownGood = lastKnownGood;
+        this.commitWindows = commitWindows;
+        this.cursors = cursors;
+        this.aggregator = aggregator;
+        this.executor = executor;
+        this.listingExecutor = listingExecutor;
+        this.rateLimit = rateLimit;
+        this.activityTimeout = activityTimeout;
+        this.streamMaxInFlight = Math.max(1, streamMaxInFlight);
+        this.bulkMaxInFlight = Math.max(1, bulkMaxInFlight);
+        this.bulkRateLimitShare = bulkRateLimitShare;
     }
 
     @Override
     public List<RepoActivity> fetchActivity(String username, int commitLimit) {
         log.info("Fetching activity for username: {} with commit limit: {}", username, commitLimit);
 
-        List<RepoSummary> repos = client.fetchAllRepos(username);
+        List<RepoSummary> repos = listRepos(username).repos();
         log.debug("Fetched {} repositories for username: {}", repos.size(), username);
 
         List<RepoActivity> results = new ArrayList<>();
         for (RepoSummary r : repos) {
             log.debug("Fetching commits for repository: {}", r.getName());
-            List<CommitInfo> commits = client.fetchRecentCommits(username, r.getName(), commitLimit);
-            results.add(new RepoActivity(r, commits));
+            try {
+                results.add(new RepoActivity(r, fetchCommits(username, r.getName(), commitLimit)));
+            } catch (RuntimeException ex) {
+                results.add(lastKnownActivity(username, r, commitLimit, ex));
+            }
         }
 
         log.info("Successfully fetched activity for {} repositories for username: {}", results.size(), username);
@@ -51,15 +122,11 @@ public class GithubServiceImpl implements GithubService {
     public List<RepoActivity> fetchActivityAsync(String username, int limit) {
         log.info("Fetching activity for username: {} with commit limit: {}", username, limit);
         
-        List<RepoSummary> repos = client.fetchAllRepos(username);
+        List<RepoSummary> repos = listRepos(username).repos();
         log.debug("Fetched {} repositories for username: {}", repos.size(), username);
 
         List<CompletableFuture<RepoActivity>> futures = repos.stream()
-                .map(repo -> CompletableFuture.supplyAsync(() -> {
-                    log.debug("Fetching commits for repository: {} asynchronously", repo.getName());
-                    List<CommitInfo> commits = client.fetchRecentCommits(username, repo.getName(), limit);
-                    return new RepoActivity(repo, commits);
-                }, executor))
+                .map(repo -> fetchRepoActivityAsync(username, repo, limit))
                 .toList();
 
         // Wait for all tasks to finish
@@ -73,53 +140,202 @@ public class GithubServiceImpl implements GithubService {
 
     @Override
     public Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size) {
+        return fetchActivityAsync(username, limit, page, size, null);
+    }
+
+    @Override
+    public Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size, Duration timeout) {
         log.info("Fetching paginated activity for username: {} with commit limit: {}, page: {}, size: {}", 
                 username, limit, page, size);
         
-        // First, get all repositories
-        List<RepoSummary> repos = client.fetchAllRepos(username);
-        log.debug("Fetched {} repositories for username: {}", repos.size(), username);
-
-        // Calculate pagination boundaries
-        int totalElements = repos.size();
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, totalElements);
-        
-        // Validate page bounds
-        if (startIndex >= totalElements) {
+        RepoWindow window = listWindow(username, page, size);
+        List<RepoSummary> pageRepos = window.repos();
+        long totalElements = window.totalElements();
+        if (pageRepos.isEmpty()) {
             log.warn("Requested page {} is out of bounds for {} total elements", page, totalElements);
-            return new Page<>(new ArrayList<>(), page, size, totalElements);
+            return new Page<>(new ArrayList<>(), page, size, totalElements, window.stale());
         }
-
-        // Get the subset of repositories for this page
-        List<RepoSummary> pageRepos = repos.subList(startIndex, endIndex);
-        log.debug("Processing page {}: repositories {} to {} of {}", page, startIndex, endIndex - 1, totalElements);
+        log.debug("Processing page {}: {} repositories of {}", page, pageRepos.size(), totalElements);
+        // The deadline bounds the commit fetches; the listing has its own client timeouts
+        long deadline = System.nanoTime() + (timeout != null ? timeout : activityTimeout).toNanos();
 
         // Fetch activity for the repositories in this page
         List<CompletableFuture<RepoActivity>> futures = pageRepos.stream()
-                .map(repo -> CompletableFuture.supplyAsync(() -> {
-                    log.debug("Fetching commits for repository: {} asynchronously", repo.getName());
-                    List<CommitInfo> commits = client.fetchRecentCommits(username, repo.getName(), limit);
-                    return new RepoActivity(repo, commits);
-                }, executor))
+                .map(repo -> fetchRepoActivityAsync(username, repo, limit))
                 .toList();
 
-        // Wait for all tasks to finish
-        List<RepoActivity> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
+        // Wait until the deadline at most, keeping whatever has finished
+        List<RepoActivity> results = awaitUntil(deadline, username, pageRepos, futures, limit);
         
         log.info("Successfully fetched paginated activity: {} repositories for username: {} (page {} of {})", 
                 results.size(), username, page, (int) Math.ceil((double) totalElements / size));
         
-        return new Page<>(results, page, size, totalElements);
+        boolean stale = window.stale() || results.stream().anyMatch(RepoActivity::isStale);
+        return new Page<>(results, page, size, totalElements, stale);
+    }
+
+    @Override
+    public CursorPage<RepoActivity> fetchActivityByCursor(String username, int limit, int size, String cursor,
+                                                          Duration timeout) {
+        log.info("Fetching activity by cursor for username: {} with commit limit: {}, size: {}, cursor: {}",
+                username, limit, size, cursor);
+
+        // The first page snapshots the full listing; later pages only look their repositories up in it
+        boolean stale = false;
+        CursorSnapshots.Position<RepoSummary> position;
+        if (cursor == null) {
+            RepoListing listing = listRepos(username);
+            position = cursors.open(ACTIVITY_CURSOR, username, listing.repos());
+            stale = listing.stale();
+        } else {
+            position = cursors.resume(ACTIVITY_CURSOR, username, cursor);
+        }
+
+        List<RepoSummary> pageRepos = position.page(size);
+        long deadline = System.nanoTime() + (timeout != null ? timeout : activityTimeout).toNanos();
+        List<CompletableFuture<RepoActivity>> futures = pageRepos.stream()
+                .map(repo -> fetchRepoActivityAsync(username, repo, limit))
+                .toList();
+        List<RepoActivity> results = awaitUntil(deadline, username, pageRepos, futures, limit);
+
+        log.info("Successfully fetched {} repository activities by cursor for username: {} (offset {} of {})",
+                results.size(), username, position.offset(), position.items().size());
+        stale |= results.stream().anyMatch(RepoActivity::isStale);
+        return new CursorPage<>(results, position.nextCursor(size), position.items().size(), stale);
+    }
+
+    @Override
+    public CursorPage<RepoSummary> fetchRepositoriesByCursor(String username, int size, String cursor) {
+        log.info("Fetching repositories by cursor for username: {} with size: {}, cursor: {}", username, size, cursor);
+
+        boolean stale = false;
+        CursorSnapshots.Position<RepoSummary> position;
+        if (cursor == null) {
+            RepoListing listing = listRepos(username);
+            position = cursors.open(REPOS_CURSOR, username, listing.repos());
+            stale = listing.stale();
+        } else {
+            position = cursors.resume(REPOS_CURSOR, username, cursor);
+        }
+        return new CursorPage<>(position.page(size), position.nextCursor(size), position.items().size(), stale);
+    }
+
+    @Override
+    public ActivityStats fetchActivityStats(String username, int days) {
+        log.info("Fetching activity stats for username: {} over {} days", username, days);
+
+        // Only repositories no sync within max-age covered from the window's first day are synced; the
+        // others are summed as they are
+        RepoListing listing = listRepos(username);
+        LocalDate from = aggregator.windowStart(days);
+        List<RepoSummary> outdated = listing.repos().stream()
+                .filter(repo -> !aggregator.isFresh(ownerOf(repo, username), repo.getName(), from))
+                .toList();
+        if (!outdated.isEmpty()) {
+            log.debug("Syncing commits since {} of {} of {} repositories for stats of username: {}",
+                    from, outdated.size(), listing.repos().size(), username);
+            long deadline = System.nanoTime() + activityTimeout.toNanos();
+            List<CompletableFuture<RepoActivity>> futures = outdated.stream()
+                    .map(repo -> syncStatsAsync(username, repo, from))
+                    .toList();
+            awaitUntil(deadline, username, outdated, futures, MAX_PER_PAGE);
+        }
+
+        ActivityStats stats = aggregator.stats(username, listing.repos(), days);
+        log.info("Successfully computed activity stats for username: {}: {} commits in {} repositories (complete: {})",
+                username, stats.getTotalCommits(), stats.getRepositories(), stats.isComplete());
+        return stats;
+    }
+
+    @Override
+    public ActivityStream streamActivity(String username, int limit, int page, int size,
+                                         Consumer<RepoActivity> onActivity) {
+        log.info("Streaming activity for username: {} with commit limit: {}, page: {}, size: {}",
+                username, limit, page, size);
+
+        // Only streamMaxInFlight fetches are started at a time, so a cancelled stream stops
+        // issuing upstream calls and finished activities are not held until the page completes
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> started = CompletableFuture.supplyAsync(() -> listWindow(username, page, size).repos(), executor)
+                .thenAccept(pageRepos -> fanOut(pageRepos, streamMaxInFlight, repo -> fetchStreamedActivity(username, repo, limit),
+                        (repo, activity) -> onActivity.accept(activity), done));
+        failWith(started, done);
+        return new ActivityStream(started, done);
+    }
+
+    @Override
+    public BulkActivity fetchBulkActivity(List<String> usernames, int limit) {
+        log.info("Fetching bulk activity for {} usernames with commit limit: {}", usernames.size(), limit);
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        BulkPlan plan = await(planBulk(usernames, done));
+        Map<String, BulkResult> results = new ConcurrentHashMap<>();
+        fanOut(plan.repos(), bulkMaxInFlight, repo -> fetchBulkRepo(repo, limit),
+                (repo, result) -> results.put(repo.key(), result), done);
+        await(done);
+
+        Map<String, List<RepoActivity>> users = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        boolean stale = false;
+        for (String user : plan.users()) {
+            RepoListing listing = plan.listings().get(user);
+            if (listing == null) {
+                errors.put(user, plan.failedUsers().get(user));
+                continue;
+            }
+            List<RepoActivity> activities = new ArrayList<>();
+            for (RepoSummary repo : listing.repos()) {
+                BulkResult result = results.get(bulkKey(ownerOf(repo, user), repo));
+                if (result.error() != null) {
+                    errors.put(result.activity().getRepository().getFullName(), result.error());
+                } else {
+                    activities.add(result.activity());
+                    stale |= result.activity().isStale();
+                }
+            }
+            users.put(user, activities);
+            stale |= listing.stale();
+        }
+
+        log.info("Successfully fetched bulk activity: {} distinct repositories for {} usernames",
+                plan.repos().size(), users.size());
+        return new BulkActivity(users, errors, plan.repos().size(), stale);
+    }
+
+    @Override
+    public ActivityStream streamBulkActivity(List<String> usernames, int limit, Consumer<UserActivity> onActivity) {
+        log.info("Streaming bulk activity for {} usernames with commit limit: {}", usernames.size(), limit);
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> started = planBulk(usernames, done).thenAccept(plan -> {
+            try {
+                plan.failedUsers().forEach((user, error) -> onActivity.accept(new UserActivity(user, null, error)));
+            } catch (RuntimeException deliveryFailure) {
+                done.completeExceptionally(deliveryFailure);
+                return;
+            }
+            // A shared repository is fetched once and delivered to every user that lists it
+            fanOut(plan.repos(), bulkMaxInFlight, repo -> fetchBulkRepo(repo, limit),
+                    (repo, result) -> repo.usernames().forEach(user ->
+                            onActivity.accept(new UserActivity(user, result.activity(), result.error()))), done);
+        });
+        failWith(started, done);
+        return new ActivityStream(started, done);
     }
 
     @Override
     public Page<RepoSummary> fetchRepositoriesWithPagination(String username, int perPage) {
         log.info("Fetching repositories with pagination for username: {} with per_page: {}", username, perPage);
         
-        PaginationResult<RepoSummary> result = client.fetchReposWithPagination(username, perPage);
+        PaginationResult<RepoSummary> result;
+        try {
+            result = client.fetchReposWithPagination(username, perPage);
+        } catch (RuntimeException ex) {
+            List<RepoSummary> lastKnown = lastKnownRepos(username, ex);
+            return new Page<>(lastKnown, 0, perPage, lastKnown.size(), true);
+        }
+        // This walks every page, so it doubles as a full listing
+        lastKnownGood.putRepos(username, result.getRepos());
         
         log.info("Successfully fetched {} repositories for username: {} (page {} of {})", 
                 result.getRepos().size(), username, result.getCurrentPage(), result.getTotalPages());
@@ -131,12 +347,357 @@ public class GithubServiceImpl implements GithubService {
     public Page<RepoSummary> fetchRepositoriesByPage(String username, int page, int perPage) {
         log.info("Fetching repositories for username: {} page: {} with per_page: {}", username, page, perPage);
         
-        PaginationResult<RepoSummary> result = client.fetchReposByPage(username, page, perPage);
+        PaginationResult<RepoSummary> result;
+        try {
+            result = client.fetchReposByPage(username, page, perPage);
+        } catch (RuntimeException ex) {
+            // Both listings are sorted by last update, so the page can be cut from the last full listing
+            List<RepoSummary> lastKnown = lastKnownRepos(username, ex);
+            int from = Math.min((page - 1) * perPage, lastKnown.size());
+            List<RepoSummary> slice = lastKnown.subList(from, Math.min(from + perPage, lastKnown.size()));
+            return new Page<>(slice, page - 1, perPage, slice.size(), true);
+        }
         
         log.info("Successfully fetched {} repositories for username: {} (page {} of {})", 
                 result.getRepos().size(), username, result.getCurrentPage(), result.getTotalPages());
         
         return new Page<>(result.getRepos(), page - 1, perPage, result.getRepos().size());
     }
-}
 
+    // One page of the owner's repositories. A cached full listing is sliced; otherwise the window is exactly
+    // GitHub's page `page + 1` at per_page=size, so only that page is listed and the total comes from its
+    // rel="last" link instead of walking every page of the owner
+    private RepoWindow listWindow(String username, int page, int size) {
+        List<RepoSummary> cached = repoCache.get(username);
+        if (cached != null || size > MAX_PER_PAGE) {
+            RepoListing listing = cached != null ? new RepoListing(cached, false) : listRepos(username);
+            return RepoWindow.slice(listing.repos(), page, size, listing.stale());
+        }
+        try {
+            PaginationResult<RepoSummary> result = client.fetchReposByPage(username, page + 1, size);
+            if (result.getRepos().isEmpty() && page > 0 && result.getTotalPages() == 0) {
+                // Past the end GitHub may not link the last page; the first page still tells the total
+                return new RepoWindow(List.of(), totalElements(username, client.fetchReposByPage(username, 1, size), 0, size), false);
+            }
+            return new RepoWindow(result.getRepos(), totalElements(username, result, page, size), false);
+        } catch (RuntimeException ex) {
+            return RepoWindow.slice(lastKnownRepos(username, ex), page, size, true);
+        }
+    }
+
+    // Without rel="last" the page is the last one and counts itself; otherwise the last page is listed too,
+    // since only its own size makes the total exact (usually a 304 for its stored ETag)
+    private long totalElements(String username, PaginationResult<RepoSummary> result, int page, int size) {
+        int lastPage = result.getTotalPages();
+        if (lastPage <= page + 1) {
+            return (long) page * size + result.getRepos().size();
+        }
+        return (long) (lastPage - 1) * size + client.fetchReposByPage(username, lastPage, size).getRepos().size();
+    }
+
+    // Serves the cached listing; once it has expired, the last known good listing is served (stale)
+    // while a background refresh runs, and only users never listed before wait for GitHub
+    private RepoListing listRepos(String username) {
+        List<RepoSummary> repos = repoCache.get(username);
+        if (repos != null) {
+            log.debug("Repository list cache hit for username: {} ({})", username, repoCache.stats());
+            return new RepoListing(repos, false);
+        }
+        List<RepoSummary> lastKnown = lastKnownGood.getRepos(username);
+        if (lastKnown != null) {
+            log.debug("Serving last known repository list for username: {} while refreshing", username);
+            refreshReposAsync(username);
+            return new RepoListing(lastKnown, true);
+        }
+        return new RepoListing(repoFlights.execute(username.toLowerCase(), () -> loadRepos(username)), false);
+    }
+
+    private void refreshReposAsync(String username) {
+        repoFlights.executeAsync(username.toLowerCase(),
+                        () -> CompletableFuture.supplyAsync(() -> loadRepos(username), executor))
+                .exceptionally(ex -> {
+                    log.warn("Background refresh of repositories for username: {} failed: {}", username, ex.getMessage());
+                    return null;
+                });
+    }
+
+    private List<RepoSummary> loadRepos(String username) {
+        List<RepoSummary> fetched = client.fetchAllRepos(username);
+        repoCache.put(username, fetched);
+        lastKnownGood.putRepos(username, fetched);
+        return fetched;
+    }
+
+    // Collects the fetches that finish before the deadline; the rest are cancelled and reported as timed
+    // out, failed ones as errors, both with their last known commits where we have them. Only when every
+    // repository failed is the first failure rethrown, since there is nothing finished to keep
+    private List<RepoActivity> awaitUntil(long deadline, String username, List<RepoSummary> repos,
+                                          List<CompletableFuture<RepoActivity>> futures, int limit) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            // Sorted out per repository below
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<RepoActivity> results = new ArrayList<>();
+        CompletionException firstFailure = null;
+        int failed = 0;
+        for (int i = 0; i < repos.size(); i++) {
+            RepoSummary repo = repos.get(i);
+            // The shared upstream call keeps running and still updates the commit window for later requests
+            if (futures.get(i).cancel(true)) {
+                log.warn("Deadline passed before the commits of repository: {} arrived", repo.getName());
+                results.add(incompleteActivity(username, repo, limit, RepoActivity.Status.TIMED_OUT));
+                continue;
+            }
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException ex) {
+                log.warn("Fetching commits for repository: {} failed: {}", repo.getName(), describe(ex));
+                if (firstFailure == null) firstFailure = ex;
+                failed++;
+                results.add(incompleteActivity(username, repo, limit, RepoActivity.Status.ERROR));
+            }
+        }
+        if (failed > 0 && failed == repos.size()) throw firstFailure;
+        return results;
+    }
+
+    private RepoActivity incompleteActivity(String username, RepoSummary repo, int limit, RepoActivity.Status status) {
+        List<CommitInfo> lastKnown = lastKnownGood.getCommits(username, repo.getName(), limit);
+        return new RepoActivity(repo, lastKnown != null ? lastKnown : List.of(), lastKnown != null, status);
+    }
+
+    // Lists every user on the listing executor, bulkMaxInFlight at a time, and keeps one entry per distinct
+    // repository; cancelling `done` stops listing the users that have not started yet
+    private CompletableFuture<BulkPlan> planBulk(List<String> usernames, CompletableFuture<Void> done) {
+        // Logins are case-insensitive, the first spelling of each is kept
+        Map<String, String> distinct = new LinkedHashMap<>();
+        usernames.forEach(u -> distinct.putIfAbsent(u.trim().toLowerCase(), u.trim()));
+        List<String> users = List.copyOf(distinct.values());
+
+        Map<String, RepoListing> listings = new ConcurrentHashMap<>();
+        Map<String, String> failedUsers = new ConcurrentHashMap<>();
+        CompletableFuture<Void> listed = new CompletableFuture<>();
+        done.whenComplete((v, ex) -> listed.cancel(false));
+        fanOut(users, bulkMaxInFlight, user -> CompletableFuture.supplyAsync(() -> listRepos(user), listingExecutor)
+                        .handle((listing, ex) -> {
+                            if (ex != null) failedUsers.put(user, describe(ex));
+                            return listing;
+                        }),
+                (user, listing) -> {
+                    if (listing != null) listings.put(user, listing);
+                }, listed);
+
+        return listed.thenApply(v -> {
+            Map<String, BulkRepo> repos = new LinkedHashMap<>();
+            for (String user : users) {
+                RepoListing listing = listings.get(user);
+                if (listing == null) continue;
+                for (RepoSummary repo : listing.repos()) {
+                    String owner = ownerOf(repo, user);
+                    repos.computeIfAbsent(bulkKey(owner, repo), key -> new BulkRepo(key, owner, repo, new ArrayList<>()))
+                            .usernames().add(user);
+                }
+            }
+            log.debug("Bulk batch of {} usernames lists {} distinct repositories", users.size(), repos.size());
+            checkBulkBudget(repos.size());
+            return new BulkPlan(users, listings, failedUsers, List.copyOf(repos.values()));
+        });
+    }
+
+    // A batch is admitted as a whole: one that needs more than its share of the remaining rate limit
+    // budget is refused up front instead of starving every other caller halfway through
+    private void checkBulkBudget(int calls) {
+        RateLimitScheduler.Budget budget = rateLimit.snapshot();
+        if (budget.remaining() < 0 || calls <= budget.remaining() * bulkRateLimitShare) return;
+        throw new BulkBudgetExceededException("Bulk batch needs up to " + calls + " GitHub calls, more than its share of the "
+                + budget.remaining() + " remaining", Math.max(1, budget.secondsUntilReset()));
+    }
+
+    // A repository that cannot be fetched is streamed with an error status instead of ending the stream
+    private CompletableFuture<RepoActivity> fetchStreamedActivity(String username, RepoSummary repo, int limit) {
+        return fetchRepoActivityAsync(username, repo, limit).exceptionally(ex -> {
+            log.warn("Fetching commits for repository: {} failed: {}", repo.getName(), describe(ex));
+            return incompleteActivity(username, repo, limit, RepoActivity.Status.ERROR);
+        });
+    }
+
+    // Failures are kept per repository, so one broken repository does not fail the batch
+    private CompletableFuture<BulkResult> fetchBulkRepo(BulkRepo repo, int limit) {
+        return fetchRepoActivityAsync(repo.owner(), repo.repo(), limit)
+                .handle((activity, ex) -> ex == null
+                        ? new BulkResult(activity, null)
+                        : new BulkResult(new RepoActivity(repo.repo(), List.of(), false, RepoActivity.Status.ERROR), describe(ex)));
+    }
+
+    // A stream that cannot start is done with the same failure
+    private static void failWith(CompletableFuture<Void> started, CompletableFuture<Void> done) {
+        started.whenComplete((v, ex) -> {
+            if (ex != null) done.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+        });
+    }
+
+    // Starts fetch for at most maxInFlight items at a time and hands each result to onResult as it arrives;
+    // `done` completes after the last one, or with the first failure, and once it is done no more items start
+    private static <T, R> void fanOut(List<T> items, int maxInFlight, Function<T, CompletableFuture<R>> fetch,
+                                      BiConsumer<T, R> onResult, CompletableFuture<Void> done) {
+        if (items.isEmpty()) {
+            done.complete(null);
+            return;
+        }
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(items.size());
+        Runnable launch = new Runnable() {
+            @Override
+            public void run() {
+                int i = next.getAndIncrement();
+                if (i >= items.size() || done.isDone()) return;
+                T item = items.get(i);
+                fetch.apply(item).whenComplete((result, ex) -> {
+                    if (done.isDone()) return;
+                    try {
+                        if (ex != null) {
+                            done.completeExceptionally(ex);
+                            return;
+                        }
+                        onResult.accept(item, result);
+                    } catch (RuntimeException deliveryFailure) {
+                        done.completeExceptionally(deliveryFailure);
+                        return;
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        done.complete(null);
+                    } else {
+                        run();
+                    }
+                });
+            }
+        };
+        for (int i = 0; i < Math.min(maxInFlight, items.size()); i++) {
+            launch.run();
+        }
+    }
+
+    private CompletableFuture<RepoActivity> fetchRepoActivityAsync(String username, RepoSummary repo, int limit) {
+        String key = (username + "/" + repo.getName() + "#" + limit).toLowerCase();
+        return commitFlights.executeAsync(key, () -> CompletableFuture.supplyAsync(() -> {
+                    log.debug("Fetching commits for repository: {} asynchronously", repo.getName());
+                    return fetchCommits(username, repo.getName(), limit);
+                }, executor))
+                .handle((commits, ex) -> ex == null
+                        ? new RepoActivity(repo, commits)
+                        : lastKnownActivity(username, repo, limit, ex instanceof CompletionException ? ex.getCause() : ex));
+    }
+
+    // Reads every commit of the stats window, up to MAX_STATS_PAGES pages; the commits only feed the counters
+    private CompletableFuture<RepoActivity> syncStatsAsync(String username, RepoSummary repo, LocalDate from) {
+        String owner = ownerOf(repo, username);
+        return CompletableFuture.supplyAsync(() -> {
+            PaginationResult<CommitInfo> result = client.fetchCommitsSince(owner, repo.getName(),
+                    from.atStartOfDay().atOffset(ZoneOffset.UTC), MAX_STATS_PAGES);
+            aggregator.recordSync(owner, repo.getName(), result.getRepos(), from, result.hasNext());
+            return new RepoActivity(repo, List.of());
+        }, executor);
+    }
+
+    // Once a repository has a commit window, only commits since its newest timestamp are fetched and merged in;
+    // the mark is an author date, so commits that do not connect to the window mean it is fetched again
+    private List<CommitInfo> fetchCommits(String username, String repo, int limit) {
+        CommitWindowStore.Window window = commitWindows.get(username, repo);
+        if (window != null && window.capacity() >= limit && commitWindows.isPushTracked(username, repo)) {
+            // Pushes arrive by webhook, so the window is already current
+            log.debug("Serving webhook-fed commit window for repository: {}", repo);
+        } else if (window != null && window.capacity() >= limit && window.newestTimestamp() != null) {
+            log.debug("Syncing commits since {} ({}) for repository: {}", window.newestSha(), window.newestTimestamp(), repo);
+            List<CommitInfo> sinceMark = client.fetchRecentCommits(username, repo, window.capacity(), window.newestTimestamp());
+            if (window.isContinuedBy(sinceMark)) {
+                window = commitWindows.merge(username, repo, sinceMark, window.capacity());
+            } else {
+                log.debug("Commits since {} do not connect to the window of repository: {}, fetching it again", window.newestSha(), repo);
+                window = commitWindows.replace(username, repo, client.fetchRecentCommits(username, repo, window.capacity()), window.capacity());
+            }
+        } else {
+            window = commitWindows.replace(username, repo, client.fetchRecentCommits(username, repo, limit), limit);
+        }
+        List<CommitInfo> commits = window.newest(limit);
+        lastKnownGood.putCommits(username, repo, commits);
+        // Counted once by sha, so the overlap with earlier windows is not counted again
+        aggregator.record(username, repo, commits);
+        return commits;
+    }
+
+    // Falls back to the last known commits when GitHub is unavailable, otherwise rethrows
+    private RepoActivity lastKnownActivity(String username, RepoSummary repo, int limit, Throwable failure) {
+        List<CommitInfo> lastKnown = isUnavailable(failure) ? lastKnownGood.getCommits(username, repo.getName(), limit) : null;
+        if (lastKnown == null) {
+            if (failure instanceof RuntimeException re) throw re;
+            throw new CompletionException(failure);
+        }
+        log.warn("GitHub unavailable ({}), serving last known commits for repository: {}", failure.getMessage(), repo.getName());
+        return new RepoActivity(repo, lastKnown, true);
+    }
+
+    private List<RepoSummary> lastKnownRepos(String username, RuntimeException failure) {
+        List<RepoSummary> lastKnown = isUnavailable(failure) ? lastKnownGood.getRepos(username) : null;
+        if (lastKnown == null) throw failure;
+        log.warn("GitHub unavailable ({}), serving last known repositories for username: {}", failure.getMessage(), username);
+        return lastKnown;
+    }
+
+    private static boolean isUnavailable(Throwable ex) {
+        return ex instanceof UpstreamUnavailableException
+                || ex instanceof HttpClientErrorException.TooManyRequests
+                || ex instanceof RateLimitBudgetExceededException
+                || CircuitBreaker.isUpstreamFailure(ex);
+    }
+
+    // Repositories are fetched under their owner, which for organization repositories is not the user
+    private static String ownerOf(RepoSummary repo, String username) {
+        String fullName = repo.getFullName();
+        int slash = fullName == null ? -1 : fullName.indexOf('/');
+        return slash > 0 ? fullName.substring(0, slash) : username;
+    }
+
+    private static String bulkKey(String owner, RepoSummary repo) {
+        return (owner + "/" + repo.getName()).toLowerCase();
+    }
+
+    private static String describe(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    private record RepoListing(List<RepoSummary> repos, boolean stale) {
+    }
+
+    private record RepoWindow(List<RepoSummary> repos, long totalElements, boolean stale) {
+
+        static RepoWindow slice(List<RepoSummary> repos, int page, int size, boolean stale) {
+            int from = (int) Math.min((long) page * size, repos.size());
+            return new RepoWindow(repos.subList(from, Math.min(from + size, repos.size())), repos.size(), stale);
+        }
+    }
+
+    private record BulkPlan(List<String> users, Map<String, RepoListing> listings, Map<String, String> failedUsers,
+                            List<BulkRepo> repos) {
+    }
+
+    private record BulkRepo(String key, String owner, RepoSummary repo, List<String> usernames) {
+    }
+
+    private record BulkResult(RepoActivity activity, String error) {
+    }
+}
@@ -0,0 +1,340 @@
+package io.example.github.service;
+
+import io.example.github.client.GithubGraphqlClient;
+import io.example.github.client.GithubGraphqlClient.RepositoryBatch;
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
+import io.example.github.model.CursorPage;
+import io.example.github.model.Page;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import io.example.github.model.UserActivity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * GithubService backed by the GraphQL API: repositories and their recent commits arrive together,
+ * {@code batchSize} repositories per query, instead of one REST call per repository.
+ * Enabled with {@code github.engine=graphql}.
+ */
+@Service
+@ConditionalOnProperty(name = "github.engine", havingValue = "graphql")
+public class GraphqlGithubService implements GithubService {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphqlGithubService.class);
+    // GitHub caps connection page size at 100
+    private static final int MAX_PAGE = 100;
+    private static final String ACTIVITY_CURSOR = "activity";
+    private static final String REPOS_CURSOR = "repos";
+
+    private final GithubGraphqlClient client;
+    private final CursorSnapshots cursors;
+    private final ActivityAggregator aggregator;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final Duration activityTimeout;
+
+    public GraphqlGithubService(GithubGraphqlClient client, CursorSnapshots cursors, ActivityAggregator aggregator,
+                                @Qualifier("githubExecutor") ExecutorService executor,
+                                @Value("${github.graphql.batch-size:50}") int batchSize,
+                                @Value("${github.activity.timeout:30s}") Duration activityTimeout) {
+        this.client = client;
+        this.cursors = cursors;
+        this.aggregator = aggregator;
+        this.executor = executor;
+        this.batchSize = Math.min(MAX_PAGE, Math.max(1, batchSize));
+        this.activityTimeout = activityTimeout;
+    }
+
+    @Override
+    public List<RepoActivity> fetchActivity(String username, int commitLimit) {
+        return fetchActivityAsync(username, commitLimit);
+    }
+
+    @Override
+    public List<RepoActivity> fetchActivityAsync(String username, int limit) {
+        log.info("Fetching activity via GraphQL for username: {} with commit limit: {}", username, limit);
+
+        List<RepoActivity> results = new ArrayList<>();
+        String cursor = null;
+        RepositoryBatch batch;
+        do {
+            batch = client.fetchRepositories(username, batchSize, cursor, limit, true);
+            record(batch.repositories());
+            results.addAll(batch.repositories());
+            cursor = batch.endCursor();
+        } while (batch.hasNextPage());
+
+        log.info("Successfully fetched activity for {} repositories for username: {}", results.size(), username);
+        return results;
+    }
+
+    @Override
+    public Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size) {
+        return fetchActivityAsync(username, limit, page, size, null);
+    }
+
+    // The deadline is checked between batches and starts once the window's position is known: a batch that
+    // has started is waited for, and the repositories of batches that did not start are listed without
+    // commits and returned as timed out
+    @Override
+    public Page<RepoActivity> fetchActivityAsync(String username, int limit, int page, int size, Duration timeout) {
+        log.info("Fetching paginated activity via GraphQL for username: {} with commit limit: {}, page: {}, size: {}",
+                username, limit, page, size);
+
+        List<RepoActivity> items = new ArrayList<>();
+        int totalCount = fetchWindow(username, page * size, size, limit, true, items::addAll,
+                deadlineAfterListing(timeout != null ? timeout : activityTimeout),
+                timedOut -> timedOut.forEach(repo ->
+                        items.add(new RepoActivity(repo, List.of(), false, RepoActivity.Status.TIMED_OUT))));
+
+        log.info("Successfully fetched paginated activity: {} repositories for username: {} (page {} of {})",
+                items.size(), username, page, (int) Math.ceil((double) totalCount / size));
+        return new Page<>(items, page, size, totalCount);
+    }
+
+    @Override
+    public ActivityStream streamActivity(String username, int limit, int page, int size,
+                                         Consumer<RepoActivity> onActivity) {
+        log.info("Streaming activity via GraphQL for username: {} with commit limit: {}, page: {}, size: {}",
+                username, limit, page, size);
+
+        // Each GraphQL batch is delivered as soon as it arrives, so the stream starts with the first one;
+        // cancellation is checked between batches
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> fetchWindow(username, page * size, size, limit, true, batch -> {
+                    started.complete(null);
+                    batch.forEach(onActivity);
+                }, done::isDone, null), executor)
+                .whenComplete((v, ex) -> finish(started, done, ex));
+        return new ActivityStream(started, done);
+    }
+
+    // One pass over every repository with its newest MAX_PAGE commits feeds the counters the stats are summed
+    // from; a repository with more commits only covers the days after its oldest one read
+    @Override
+    public ActivityStats fetchActivityStats(String username, int days) {
+        log.info("Fetching activity stats via GraphQL for username: {} over {} days", username, days);
+
+        List<RepoActivity> activity = fetchActivityAsync(username, MAX_PAGE);
+        for (RepoActivity a : activity) {
+            String fullName = a.getRepository().getFullName();
+            aggregator.recordSync(fullName.substring(0, fullName.indexOf('/')), a.getRepository().getName(),
+                    a.getCommits(), null, a.getCommits().size() >= MAX_PAGE);
+        }
+        return aggregator.stats(username, activity.stream().map(RepoActivity::getRepository).toList(), days);
+    }
+
+    // Repositories and commits arrive together, so the first page snapshots the whole activity and later
+    // pages are served from it with the commits as of the first page
+    @Override
+    public CursorPage<RepoActivity> fetchActivityByCursor(String username, int limit, int size, String cursor,
+                                                          Duration timeout) {
+        log.info("Fetching activity by cursor via GraphQL for username: {} with commit limit: {}, size: {}",
+                username, limit, size);
+
+        CursorSnapshots.Position<RepoActivity> position = cursor == null
+                ? cursors.open(ACTIVITY_CURSOR, username, fetchActivityAsync(username, limit))
+                : cursors.resume(ACTIVITY_CURSOR, username, cursor);
+        return new CursorPage<>(position.page(size), position.nextCursor(size), position.items().size(), false);
+    }
+
+    @Override
+    public CursorPage<RepoSummary> fetchRepositoriesByCursor(String username, int size, String cursor) {
+        log.info("Fetching repositories by cursor via GraphQL for username: {} with size: {}", username, size);
+
+        CursorSnapshots.Position<RepoSummary> position = cursor == null
+                ? cursors.open(REPOS_CURSOR, username, fetchRepositoriesWithPagination(username, MAX_PAGE).getContent())
+                : cursors.resume(REPOS_CURSOR, username, cursor);
+        return new CursorPage<>(position.page(size), position.nextCursor(size), position.items().size(), false);
+    }
+
+    // Repositories and commits of a user already arrive together, so a batch is one user after another;
+    // a user that fails, whether GraphQL reports errors (e.g. unknown logins) or the call itself fails, is
+    // reported and skipped
+    @Override
+    public BulkActivity fetchBulkActivity(List<String> usernames, int limit) {
+        log.info("Fetching bulk activity via GraphQL for {} usernames with commit limit: {}", usernames.size(), limit);
+
+        Map<String, List<RepoActivity>> users = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        int repositories = 0;
+        for (String username : distinct(usernames)) {
+            try {
+                List<RepoActivity> activities = fetchActivityAsync(username, limit);
+                users.put(username, activities);
+                repositories += activities.size();
+            } catch (RuntimeException ex) {
+                log.warn("Fetching bulk activity via GraphQL for username: {} failed: {}", username, ex.getMessage());
+                errors.put(username, ex.getMessage());
+            }
+        }
+        return new BulkActivity(users, errors, repositories, false);
+    }
+
+    @Override
+    public ActivityStream streamBulkActivity(List<String> usernames, int limit, Consumer<UserActivity> onActivity) {
+        log.info("Streaming bulk activity via GraphQL for {} usernames with commit limit: {}", usernames.size(), limit);
+
+        // Users are listed as they are streamed, so there is nothing to wait for before starting
+        CompletableFuture<Void> started = CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        // A failed delivery ends the stream; a failed user is streamed as an error and the next one starts
+        Consumer<UserActivity> deliver = activity -> {
+            try {
+                onActivity.accept(activity);
+            } catch (RuntimeException deliveryFailure) {
+                done.completeExceptionally(deliveryFailure);
+                throw deliveryFailure;
+            }
+        };
+        CompletableFuture.runAsync(() -> {
+                    for (String username : distinct(usernames)) {
+                        if (done.isDone()) return;
+                        try {
+                            fetchWindow(username, 0, Integer.MAX_VALUE, limit, true,
+                                    batch -> batch.forEach(a -> deliver.accept(new UserActivity(username, a))),
+                                    done::isDone, null);
+                        } catch (RuntimeException ex) {
+                            if (done.isDone()) throw ex;
+                            log.warn("Streaming bulk activity via GraphQL for username: {} failed: {}", username, ex.getMessage());
+                            deliver.accept(new UserActivity(username, null, ex.getMessage()));
+                        }
+                    }
+                }, executor)
+                .whenComplete((v, ex) -> finish(started, done, ex));
+        return new ActivityStream(started, done);
+    }
+
+    @Override
+    public Page<RepoSummary> fetchRepositoriesWithPagination(String username, int perPage) {
+        log.info("Fetching repositories via GraphQL for username: {} with per_page: {}", username, perPage);
+
+        List<RepoSummary> repos = new ArrayList<>();
+        String cursor = null;
+        RepositoryBatch batch;
+        do {
+            batch = client.fetchRepositories(username, MAX_PAGE, cursor, 1, false);
+            batch.repositories().forEach(a -> repos.add(a.getRepository()));
+            cursor = batch.endCursor();
+        } while (batch.hasNextPage());
+
+        return new Page<>(repos, 0, perPage, repos.size());
+    }
+
+    @Override
+    public Page<RepoSummary> fetchRepositoriesByPage(String username, int page, int perPage) {
+        log.info("Fetching repositories via GraphQL for username: {} page: {} with per_page: {}", username, page, perPage);
+
+        List<RepoSummary> repos = new ArrayList<>();
+        fetchWindow(username, (page - 1) * perPage, perPage, 1, false,
+                batch -> batch.forEach(a -> repos.add(a.getRepository())), () -> false, null);
+
+        return new Page<>(repos, page - 1, perPage, repos.size());
+    }
+
+    // A stream that fails before its first batch fails to start
+    private static void finish(CompletableFuture<Void> started, CompletableFuture<Void> done, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        if (cause != null) {
+            started.completeExceptionally(cause);
+            done.completeExceptionally(cause);
+        } else {
+            started.complete(null);
+            done.complete(null);
+        }
+    }
+
+    private void record(List<RepoActivity> batch) {
+        for (RepoActivity activity : batch) {
+            String fullName = activity.getRepository().getFullName();
+            aggregator.record(fullName.substring(0, fullName.indexOf('/')), activity.getRepository().getName(),
+                    activity.getCommits());
+        }
+    }
+
+    // Logins are case-insensitive, the first spelling of each is kept
+    private static List<String> distinct(List<String> usernames) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        usernames.forEach(u -> distinct.putIfAbsent(u.trim().toLowerCase(), u.trim()));
+        return List.copyOf(distinct.values());
+    }
+
+    // Its clock starts at the first check, which fetchWindow makes once the skipped repositories are listed
+    private static BooleanSupplier deadlineAfterListing(Duration timeout) {
+        long[] deadline = new long[1];
+        boolean[] started = new boolean[1];
+        return () -> {
+            if (!started[0]) {
+                deadline[0] = System.nanoTime() + timeout.toNanos();
+                started[0] = true;
+            }
+            return System.nanoTime() - deadline[0] > 0;
+        };
+    }
+
+    // Skips `offset` repositories without commit history, then hands `count` repositories to onBatch
+    // batch by batch; returns the owner's total repository count. Once `cancelled` turns true no batch
+    // starts, and the rest of the window is listed without commits for onCancelled, if there is one
+    private int fetchWindow(String username, int offset, int count, int limit, boolean withCommits,
+                            Consumer<List<RepoActivity>> onBatch, BooleanSupplier cancelled,
+                            Consumer<List<RepoSummary>> onCancelled) {
+        String cursor = null;
+        int totalCount = 0;
+        int toSkip = offset;
+        while (toSkip > 0) {
+            RepositoryBatch skipped = client.fetchRepositories(username, Math.min(MAX_PAGE, toSkip), cursor, 1, false);
+            totalCount = skipped.totalCount();
+            toSkip -= skipped.repositories().size();
+            cursor = skipped.endCursor();
+            if (!skipped.hasNextPage() || skipped.repositories().isEmpty()) {
+                log.warn("Requested offset {} is out of bounds for {} total elements", offset, totalCount);
+                return totalCount;
+            }
+        }
+
+        int fetched = 0;
+        int step = withCommits ? batchSize : MAX_PAGE;
+        while (fetched < count) {
+            if (cancelled.getAsBoolean()) {
+                if (onCancelled != null) listRest(username, count - fetched, cursor, onCancelled);
+                break;
+            }
+            RepositoryBatch batch = client.fetchRepositories(username, Math.min(step, count - fetched), cursor, limit, withCommits);
+            totalCount = batch.totalCount();
+            fetched += batch.repositories().size();
+            if (withCommits) record(batch.repositories());
+            onBatch.accept(batch.repositories());
+            cursor = batch.endCursor();
+            if (!batch.hasNextPage() || batch.repositories().isEmpty()) break;
+        }
+        return totalCount;
+    }
+
+    private void listRest(String username, int count, String cursor, Consumer<List<RepoSummary>> onListed) {
+        int listed = 0;
+        while (listed < count) {
+            RepositoryBatch batch = client.fetchRepositories(username, Math.min(MAX_PAGE, count - listed), cursor, 1, false);
+            listed += batch.repositories().size();
+            onListed.accept(batch.repositories().stream().map(RepoActivity::getRepository).toList());
+            cursor = batch.endCursor();
+            if (!batch.hasNextPage() || batch.repositories().isEmpty()) break;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package io.example.github.service;
+
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.model.Page;
+import io.example.github.model.RepoActivity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the activity pages of the most requested users precomputed.
+ * <p>
+ * Every activity request bumps an exponentially decaying score for its (username, limit) and remembers
+ * which page window was asked for. On each tick the highest scoring keys have their recently requested
+ * windows refreshed in the background and kept in memory, so those requests are answered without calling
+ * GitHub. Refreshes spend at most {@code rate-limit-share} of the GitHub budget left in the window, accrued
+ * tick by tick. A window is only refreshed once its worst case cost (one listing call plus one call per
+ * repository) is covered, and that cost is charged up front; a tick that overspends leaves the next ones
+ * in debt. Each window is fetched on the GitHub executor, so a slow user does not hold up the others, and a
+ * window still being fetched is not started again. Materialized activity older than {@code max-age} is never
+ * served; it is answered straight from memory, so a request's {@code timeoutMs} does not apply to it.
+ */
+@Component
+@EnableScheduling
+public class HotActivityRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(HotActivityRefresher.class);
+    // Page windows remembered per (username, limit), most recently requested first
+    private static final int MAX_WINDOWS = 4;
+    // Credit before GitHub has reported a budget: one page of the default size plus its listing call
+    private static final int UNKNOWN_BUDGET_CREDIT = 21;
+
+    private final GithubService githubService;
+    private final RateLimitScheduler rateLimit;
+    private final Executor executor;
+    private final boolean enabled;
+    private final int topK;
+    private final double minScore;
+    private final double rateLimitShare;
+    private final long halfLifeMillis;
+    private final long maxAgeMillis;
+    private final long intervalMillis;
+    private final int maxTracked;
+    private final LongSupplier clock;
+
+    private final Map<Key, Score> scores = new ConcurrentHashMap<>();
+    private final Map<Slot, Materialized> materialized = new ConcurrentHashMap<>();
+    private final Set<Slot> inFlight = ConcurrentHashMap.newKeySet();
+    private double credit;
+
+    @Autowired
+    public HotActivityRefresher(GithubService githubService, RateLimitScheduler rateLimit,
+                                @Qualifier("githubExecutor") Executor executor,
+                                @Value("${github.hot.enabled:true}") boolean enabled,
+                                @Value("${github.hot.top-k:50}") int topK,
+                                @Value("${github.hot.min-score:2}") double minScore,
+                                @Value("${github.hot.rate-limit-share:0.2}") double rateLimitShare,
+                                @Value("${github.hot.half-life:10m}") Duration halfLife,
+                                @Value("${github.hot.max-age:5m}") Duration maxAge,
+                                @Value("${github.hot.refresh-interval:PT1M}") Duration refreshInterval,
+                                @Value("${github.hot.max-tracked:10000}") int maxTracked) {
+        this(githubService, rateLimit, executor, enabled, topK, minScore, rateLimitShare, halfLife, maxAge, refreshInterval,
+                maxTracked, System::currentTimeMillis);
+    }
+
+    HotActivityRefresher(GithubService githubService, RateLimitScheduler rateLimit, Executor executor,
+                         boolean enabled, int topK, double minScore, double rateLimitShare, Duration halfLife, Duration maxAge,
+                         Duration refreshInterval, int maxTracked, LongSupplier clock) {
+        this.githubService = githubService;
+        this.rateLimit = rateLimit;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.minScore = minScore;
+        this.rateLimitShare = rateLimitShare;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.maxAgeMillis = maxAge.toMillis();
+        this.intervalMillis = refreshInterval.toMillis();
+        this.maxTracked = maxTracked;
+        this.clock = clock;
+    }
+
+    /**
+     * Counts the request and returns the page from materialized activity, or null if there is none fresh enough.
+     */
+    public Page<RepoActivity> page(String username, int limit, int page, int size) {
+        if (!enabled) return null;
+        Key key = new Key(username.toLowerCase(), limit);
+        Window window = new Window(page, size);
+        long now = clock.getAsLong();
+        if (scores.size() < maxTracked || scores.containsKey(key)) {
+            scores.computeIfAbsent(key, k -> new Score()).hit(now, halfLifeMillis, window);
+        }
+
+        Materialized entry = materialized.get(new Slot(key, window));
+        if (entry == null || now - entry.refreshedAt() > maxAgeMillis) return null;
+        log.debug("Serving materialized activity for username: {} (refreshed {}ms ago)", username, now - entry.refreshedAt());
+        return entry.page();
+    }
+
+    @Scheduled(initialDelayString = "${github.hot.refresh-interval:PT1M}",
+            fixedDelayString = "${github.hot.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!enabled) return;
+        long now = clock.getAsLong();
+        List<Map.Entry<Key, Double>> hottest = hottest(now);
+        Set<Key> hotKeys = hottest.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        materialized.entrySet().removeIf(e -> !hotKeys.contains(e.getKey().key())
+                && now - e.getValue().refreshedAt() > maxAgeMillis);
+        if (hottest.isEmpty()) return;
+
+        accrueCredit();
+        int started = 0;
+        for (Map.Entry<Key, Double> hot : hottest) {
+            Key key = hot.getKey();
+            Score score = scores.get(key);
+            if (score == null) continue;
+            for (Window window : score.windows()) {
+                // A page lists at most one GitHub page and fetches the commits of at most `size` repositories
+                long estimate = 1 + window.size();
+                if (estimate > credit) continue;
+                Slot slot = new Slot(key, window);
+                if (!inFlight.add(slot)) continue;
+                credit -= estimate;
+                try {
+                    executor.execute(() -> refreshSlot(slot));
+                    started++;
+                } catch (RuntimeException ex) {
+                    inFlight.remove(slot);
+                    log.warn("Background refresh of activity for username: {} was rejected: {}", key.username(), ex.getMessage());
+                }
+            }
+        }
+        log.info("Started refreshing {} activity pages of {} hot users ({} tracked, {} calls of credit left)",
+                started, hottest.size(), scores.size(), (long) credit);
+    }
+
+    private void refreshSlot(Slot slot) {
+        Key key = slot.key();
+        Window window = slot.window();
+        try {
+            Page<RepoActivity> page = githubService.fetchActivityAsync(key.username(), key.limit(), window.page(), window.size());
+            // A page that timed out or failed in part would be served long after the problem cleared
+            if (page.getContent().stream().noneMatch(HotActivityRefresher::isIncomplete)) {
+                materialized.put(slot, new Materialized(page, clock.getAsLong()));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Background refresh of activity for username: {} failed: {}", key.username(), ex.getMessage());
+        } finally {
+            inFlight.remove(slot);
+        }
+    }
+
+    public int materializedCount() {
+        return materialized.size();
+    }
+
+    // Keys above min-score, hottest first, at most topK; forgets keys whose score has decayed away
+    private List<Map.Entry<Key, Double>> hottest(long now) {
+        List<Map.Entry<Key, Double>> candidates = new ArrayList<>();
+        scores.forEach((key, score) -> {
+            double current = score.current(now, halfLifeMillis);
+            if (current >= minScore) candidates.add(Map.entry(key, current));
+        });
+        scores.values().removeIf(score -> score.current(now, halfLifeMillis) < 0.01);
+        candidates.sort(Map.Entry.<Key, Double>comparingByValue(Comparator.reverseOrder()));
+        return candidates.subList(0, Math.min(topK, candidates.size()));
+    }
+
+    // Adds this tick's slice of our share of the remaining budget, spread over the ticks left until the
+    // window resets, capped at the whole share. Debt from earlier ticks is paid back first
+    private void accrueCredit() {
+        RateLimitScheduler.Budget budget = rateLimit.snapshot();
+        if (budget.remaining() < 0) {
+            credit = Math.max(credit, UNKNOWN_BUDGET_CREDIT);
+            return;
+        }
+        double share = budget.remaining() * rateLimitShare;
+        double ticksLeft = Math.max(1.0, budget.secondsUntilReset() * 1000.0 / intervalMillis);
+        credit = Math.min(share, credit + share / ticksLeft);
+    }
+
+    private static boolean isIncomplete(RepoActivity activity) {
+        return activity.getStatus() == RepoActivity.Status.TIMED_OUT || activity.getStatus() == RepoActivity.Status.ERROR;
+    }
+
+    private record Key(String username, int limit) {
+    }
+
+    private record Window(int page, int size) {
+    }
+
+    private record Slot(Key key, Window window) {
+    }
+
+    private record Materialized(Page<RepoActivity> page, long refreshedAt) {
+    }
+
+    // Request count that halves every half-life, plus the page windows requested most recently
+    private static final class Score {
+        private double value;
+        private long updatedAt;
+        private final Deque<Window> windows = new ArrayDeque<>();
+
+        synchronized void hit(long now, long halfLife, Window window) {
+            value = current(now, halfLife) + 1;
+            updatedAt = now;
+            windows.remove(window);
+            windows.addFirst(window);
+            if (windows.size() > MAX_WINDOWS) windows.removeLast();
+        }
+
+        synchronized double current(long now, long halfLife) {
+            if (updatedAt == 0) return value;
+            return value * Math.pow(0.5, (double) (now - updatedAt) / halfLife);
+        }
+
+        synchronized List<Window> windows() {
+            return List.copyOf(windows);
+        }
+    }
+}
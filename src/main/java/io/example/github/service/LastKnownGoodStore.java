@@ -0,0 +1,75 @@
+package io.example.github.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import io.example.github.store.ActivityStore;
+import io.example.github.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Last successful repository listing per user and commit list per repository, kept much longer than
+ * the regular caches so there is something to serve (marked stale) while GitHub is unavailable
+ * or a background refresh is still running. Misses read through to the {@link ActivityStore},
+ * so a restarted process can answer from what the previous one saw.
+ */
+@Component
+public class LastKnownGoodStore {
+
+    private static final TypeReference<List<RepoSummary>> REPOS = new TypeReference<>() {
+    };
+    private static final TypeReference<CommitWindowStore.Window> WINDOW = new TypeReference<>() {
+    };
+
+    private final TtlCache<String, List<RepoSummary>> repos;
+    private final TtlCache<String, List<CommitInfo>> commits;
+    private final ActivityStore persistent;
+    private final Duration ttl;
+
+    public LastKnownGoodStore(@Value("${github.cache.last-known-good.max-entries:10000}") int maxEntries,
+                              @Value("${github.cache.last-known-good.ttl:24h}") Duration ttl,
+                              ActivityStore persistent) {
+        this.repos = new TtlCache<>(maxEntries, ttl);
+        this.commits = new TtlCache<>(maxEntries, ttl);
+        this.persistent = persistent;
+        this.ttl = ttl;
+    }
+
+    public List<RepoSummary> getRepos(String username) {
+        List<RepoSummary> listing = repos.get(key(username));
+        if (listing == null) {
+            listing = persistent.get(ActivityStore.reposKey(username), REPOS, ttl);
+            if (listing != null) repos.put(key(username), listing);
+        }
+        return listing;
+    }
+
+    public void putRepos(String username, List<RepoSummary> listing) {
+        repos.put(key(username), List.copyOf(listing));
+        persistent.put(ActivityStore.reposKey(username), listing);
+    }
+
+    // Returns at most `limit` of the commits last seen for the repository
+    public List<CommitInfo> getCommits(String username, String repo, int limit) {
+        List<CommitInfo> last = commits.get(key(username + "/" + repo));
+        if (last == null) {
+            // Commit windows are what gets persisted
+            CommitWindowStore.Window window = persistent.get(ActivityStore.commitWindowKey(username, repo), WINDOW, ttl);
+            last = window == null ? null : window.commits();
+        }
+        return last == null ? null : last.subList(0, Math.min(limit, last.size()));
+    }
+
+    public void putCommits(String username, String repo, List<CommitInfo> recent) {
+        commits.put(key(username + "/" + repo), List.copyOf(recent));
+    }
+
+    // GitHub logins and repository names are case-insensitive
+    private static String key(String name) {
+        return name == null ? "" : name.toLowerCase();
+    }
+}
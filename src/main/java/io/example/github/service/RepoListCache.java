@@ -0,0 +1,49 @@
+package io.example.github.service;
+
+import io.example.github.model.RepoSummary;
+import io.example.github.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Full repository listings keyed by username, so paging through activity only pays for
+ * the commit fetches of each page instead of re-listing the whole user/org every time.
+ */
+@Component
+public class RepoListCache {
+
+    private final TtlCache<String, List<RepoSummary>> cache;
+
+    public RepoListCache(@Value("${github.cache.repos.max-entries:500}") int maxEntries,
+                         @Value("${github.cache.repos.ttl:5m}") Duration ttl) {
+        this.cache = new TtlCache<>(maxEntries, ttl);
+    }
+
+    public List<RepoSummary> get(String username) {
+        return cache.get(key(username));
+    }
+
+    public void put(String username, List<RepoSummary> repos) {
+        cache.put(key(username), List.copyOf(repos));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(key(username));
+    }
+
+    public TtlCache.Stats stats() {
+        return cache.stats();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    // GitHub logins are case-insensitive
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase();
+    }
+}
@@ -0,0 +1,188 @@
+package io.example.github.service;
+
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import io.example.github.util.GithubMappers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies GitHub {@code push} and {@code repository} webhook payloads to the commit windows and
+ * repository listings we hold, so repositories with webhooks configured stop needing polls.
+ */
+@Service
+public class WebhookIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookIngestService.class);
+    private static final int MAX_LISTED_COMMITS = 20;
+
+    private final CommitWindowStore commitWindows;
+    private final RepoListCache repoCache;
+    private final LastKnownGoodStore lastKnownGood;
+    private final ActivityAggregator aggregator;
+
+    public WebhookIngestService(CommitWindowStore commitWindows, RepoListCache repoCache, LastKnownGoodStore lastKnownGood,
+                                ActivityAggregator aggregator) {
+        this.commitWindows = commitWindows;
+        this.repoCache = repoCache;
+        this.lastKnownGood = lastKnownGood;
+        this.aggregator = aggregator;
+    }
+
+    /**
+     * Merges the pushed commits into the repository's commit window; returns how many commits were applied.
+     */
+    @SuppressWarnings("unchecked")
+    public int applyPush(Map<String, Object> payload) {
+        Map<String, Object> repository = (Map<String, Object>) payload.get("repository");
+        if (repository == null) return 0;
+        String owner = ownerLogin(repository);
+        String repo = (String) repository.get("name");
+        String ref = (String) payload.get("ref");
+
+        // Activity shows the default branch only
+        if (!("refs/heads/" + repository.get("default_branch")).equals(ref) || Boolean.TRUE.equals(payload.get("deleted"))) {
+            log.debug("Ignoring push to {} of {}/{}", ref, owner, repo);
+            return 0;
+        }
+        if (Boolean.TRUE.equals(payload.get("forced"))) {
+            // History was rewritten: the window can no longer be patched
+            log.info("Forced push to {}/{}, dropping its commit window", owner, repo);
+            commitWindows.invalidate(owner, repo);
+            return 0;
+        }
+        List<Map<String, Object>> pushed = (List<Map<String, Object>>) payload.getOrDefault("commits", List.of());
+
+        // Payload commits are oldest first, windows newest first
+        List<CommitInfo> newestFirst = new ArrayList<>();
+        for (int i = pushed.size() - 1; i >= 0; i--) {
+            newestFirst.add(GithubMappers.mapPushCommit(pushed.get(i)));
+        }
+        aggregator.record(owner, repo, newestFirst);
+
+        CommitWindowStore.Window window = commitWindows.get(owner, repo);
+        if (window == null) {
+            // Nothing to patch yet; the next read fetches the window and later pushes keep it current
+            return 0;
+        }
+        if (!continuesWindow(payload, newestFirst, window)) {
+            // A missed delivery, or more commits than the payload lists: the window would have a gap
+            log.info("Push to {}/{} does not continue its commit window, dropping it", owner, repo);
+            commitWindows.invalidate(owner, repo);
+            return 0;
+        }
+        commitWindows.merge(owner, repo, newestFirst, window.capacity());
+        commitWindows.markPushTracked(owner, repo);
+        log.info("Applied {} pushed commits to {}/{}", newestFirst.size(), owner, repo);
+        return newestFirst.size();
+    }
+
+    /**
+     * Updates the owner's repository listing for a {@code repository} event; returns 1 if anything changed.
+     */
+    @SuppressWarnings("unchecked")
+    public int applyRepository(Map<String, Object> payload) {
+        Map<String, Object> repository = (Map<String, Object>) payload.get("repository");
+        String action = (String) payload.get("action");
+        if (repository == null || action == null) return 0;
+        String owner = ownerLogin(repository);
+        RepoSummary summary = GithubMappers.mapRepo(repository);
+
+        switch (action) {
+            case "created" -> updateListings(owner, repos -> {
+                repos.removeIf(r -> sameRepo(r, summary.getFullName()));
+                repos.add(0, summary);
+                return repos;
+            });
+            case "deleted" -> {
+                updateListings(owner, repos -> {
+                    repos.removeIf(r -> sameRepo(r, summary.getFullName()));
+                    return repos;
+                });
+                commitWindows.invalidate(owner, summary.getName());
+            }
+            case "renamed" -> {
+                String from = renamedFrom(payload);
+                updateListings(owner, repos -> replace(repos, owner + "/" + from, summary));
+                if (from != null) commitWindows.invalidate(owner, from);
+            }
+            case "transferred" -> {
+                // The previous owner is only named in `changes`; both listings are simply refetched
+                repoCache.invalidate(owner);
+                String previousOwner = transferredFrom(payload);
+                if (previousOwner != null) {
+                    repoCache.invalidate(previousOwner);
+                    commitWindows.invalidate(previousOwner, summary.getName());
+                }
+            }
+            case "edited", "archived", "unarchived", "privatized", "publicized" ->
+                    updateListings(owner, repos -> replace(repos, summary.getFullName(), summary));
+            default -> {
+                log.debug("Ignoring repository event {} for {}", action, summary.getFullName());
+                return 0;
+            }
+        }
+        log.info("Applied repository {} event for {}", action, summary.getFullName());
+        return 1;
+    }
+
+    // The push starts at the window's newest commit and its listed commits end at the new head. GitHub lists at
+    // most MAX_LISTED_COMMITS commits per push, so a full list may have left out the oldest ones
+    private static boolean continuesWindow(Map<String, Object> payload, List<CommitInfo> newestFirst,
+                                           CommitWindowStore.Window window) {
+        Object before = payload.get("before");
+        Object after = payload.get("after");
+        if (before == null || !before.equals(window.newestSha())) return false;
+        if (newestFirst.isEmpty()) return before.equals(after);
+        return newestFirst.size() < MAX_LISTED_COMMITS && newestFirst.get(0).getSha().equals(after);
+    }
+
+    // Rewrites the cached and the last known listing of `owner`, where we have them
+    private void updateListings(String owner, UnaryOperator<List<RepoSummary>> change) {
+        List<RepoSummary> cached = repoCache.get(owner);
+        if (cached != null) repoCache.put(owner, change.apply(new ArrayList<>(cached)));
+        List<RepoSummary> lastKnown = lastKnownGood.getRepos(owner);
+        if (lastKnown != null) lastKnownGood.putRepos(owner, change.apply(new ArrayList<>(lastKnown)));
+    }
+
+    private static List<RepoSummary> replace(List<RepoSummary> repos, String fullName, RepoSummary summary) {
+        repos.replaceAll(r -> sameRepo(r, fullName) ? summary : r);
+        return repos;
+    }
+
+    private static boolean sameRepo(RepoSummary repo, String fullName) {
+        return repo.getFullName() != null && repo.getFullName().equalsIgnoreCase(fullName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String ownerLogin(Map<String, Object> repository) {
+        Map<String, Object> owner = (Map<String, Object>) repository.get("owner");
+        if (owner != null && owner.get("login") != null) return (String) owner.get("login");
+        String fullName = (String) repository.get("full_name");
+        return fullName == null ? null : fullName.substring(0, fullName.indexOf('/'));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String renamedFrom(Map<String, Object> payload) {
+        Map<String, Object> changes = (Map<String, Object>) payload.get("changes");
+        Map<String, Object> repository = changes == null ? null : (Map<String, Object>) changes.get("repository");
+        Map<String, Object> name = repository == null ? null : (Map<String, Object>) repository.get("name");
+        return name == null ? null : (String) name.get("from");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String transferredFrom(Map<String, Object> payload) {
+        Map<String, Object> changes = (Map<String, Object>) payload.get("changes");
+        Map<String, Object> owner = changes == null ? null : (Map<String, Object>) changes.get("owner");
+        Map<String, Object> from = owner == null ? null : (Map<String, Object>) owner.get("from");
+        if (from == null) return null;
+        Map<String, Object> account = (Map<String, Object>) (from.containsKey("user") ? from.get("user") : from.get("organization"));
+        return account == null ? null : (String) account.get("login");
+    }
+}
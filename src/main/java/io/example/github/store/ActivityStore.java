@@ -0,0 +1,352 @@
+package io.example.github.store;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded key/value store that keeps repository listings and commit windows across restarts.
+ * <p>
+ * Values are appended as JSON to a single log file; an in-memory index of key to latest record is
+ * rebuilt at startup by scanning the log through a memory mapping, and reads are served from that
+ * mapping. Writes are coalesced per key and appended by a single background thread, so requests
+ * never wait on disk. A torn record at the tail (crash mid-write) is truncated on startup, and the
+ * log is compacted at startup once most of it is superseded records.
+ * <p>
+ * Only one process writes the log (guarded by a file lock). A second instance sharing the directory,
+ * such as the new color of a blue-green deploy, starts read-only from the same data and takes over
+ * writing once the lock is released.
+ */
+@Component
+public class ActivityStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityStore.class);
+
+    private static final String LOG_FILE = "activity.log";
+    private static final String LOCK_FILE = "activity.lock";
+    // bodyLength | savedAt | keyLength | key | value | crc32
+    private static final int HEADER = Integer.BYTES;
+    private static final int BODY_PREFIX = Long.BYTES + Short.BYTES;
+    private static final int TRAILER = Integer.BYTES;
+    private static final int MAX_BODY = 16 * 1024 * 1024;
+    private static final long COMPACT_MIN_BYTES = 1024 * 1024;
+    // Reads go through a single mapping, which Java caps just under 2 GiB
+    private static final long MAX_LOG_BYTES = 1L << 30;
+
+    private final boolean enabled;
+    private final Path logPath;
+    private final ObjectMapper mapper;
+    private final Map<String, Object> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService writer;
+
+    private final Map<String, IndexEntry> index = new HashMap<>();
+    private FileChannel channel;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private volatile MappedByteBuffer mapped;
+    private long size;
+
+    public ActivityStore(@Value("${github.store.enabled:true}") boolean enabled,
+                         @Value("${github.store.dir:data/store}") String dir,
+                         ObjectMapper mapper) {
+        this.enabled = enabled;
+        this.logPath = Path.of(dir).resolve(LOG_FILE);
+        this.mapper = mapper;
+        this.writer = enabled ? Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "activity-store-writer");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        if (enabled) open(Path.of(dir));
+    }
+
+    public static String reposKey(String username) {
+        return "repos:" + username.toLowerCase();
+    }
+
+    public static String commitWindowKey(String username, String repo) {
+        return "commits:" + (username + "/" + repo).toLowerCase();
+    }
+
+    // A store that keeps nothing, for callers that run without persistence
+    public static ActivityStore disabled() {
+        return new ActivityStore(false, ".", new ObjectMapper());
+    }
+
+    /**
+     * Returns the latest value stored under {@code key}, or null if there is none or it was saved
+     * longer than {@code maxAge} ago.
+     */
+    public <T> T get(String key, TypeReference<T> type, Duration maxAge) {
+        if (!enabled) return null;
+        Object unwritten = pending.get(key);
+        if (unwritten != null) return mapper.convertValue(unwritten, type);
+
+        ByteBuffer value;
+        synchronized (this) {
+            IndexEntry entry = mapped == null ? null : index.get(key);
+            if (entry == null || System.currentTimeMillis() - entry.savedAt() > maxAge.toMillis()) return null;
+            value = read(entry);
+        }
+        try {
+            byte[] bytes = new byte[value.remaining()];
+            value.get(bytes);
+            return mapper.readValue(bytes, type);
+        } catch (IOException ex) {
+            log.warn("Could not decode stored value for {}: {}", key, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Queues {@code value} to be appended under {@code key}; only the latest queued value per key is written.
+     */
+    public void put(String key, Object value) {
+        if (!enabled) return;
+        pending.put(key, value);
+        if (flushScheduled.compareAndSet(false, true)) {
+            writer.execute(this::flush);
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized boolean isWritable() {
+        return lock != null;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) return;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                if (lock != null) {
+                    channel.force(true);
+                    lock.release();
+                }
+                if (lockChannel != null) lockChannel.close();
+                if (channel != null) channel.close();
+            } catch (IOException ex) {
+                log.warn("Could not close activity store: {}", ex.getMessage());
+            }
+            mapped = null;
+            lock = null;
+        }
+    }
+
+    private synchronized void open(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = tryLock();
+            if (lock == null) {
+                log.warn("Activity store {} is in use by another process, opening read-only", logPath);
+            }
+            openLog();
+            if (lock != null && size > COMPACT_MIN_BYTES && liveBytes() * 2 < size) {
+                compact();
+            }
+            log.info("Activity store {} opened with {} entries ({} bytes{})",
+                    logPath, index.size(), size, lock == null ? ", read-only" : "");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open activity store " + logPath, ex);
+        }
+    }
+
+    private void openLog() throws IOException {
+        if (channel != null) channel.close();
+        index.clear();
+        if (lock == null && !Files.exists(logPath)) {
+            // Nothing written yet by the owner
+            channel = null;
+            mapped = null;
+            size = 0;
+            return;
+        }
+        channel = lock != null
+                ? FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(logPath, StandardOpenOption.READ);
+        size = channel.size();
+        remap();
+        long valid = scan();
+        if (valid < size) {
+            if (lock != null) {
+                log.warn("Truncating {} bytes of incomplete records at the end of {}", size - valid, logPath);
+                channel.truncate(valid);
+            }
+            size = valid;
+            remap();
+        }
+    }
+
+    // Rebuilds the index from the log, returning the offset just past the last intact record
+    private long scan() {
+        MappedByteBuffer buffer = mapped;
+        long offset = 0;
+        CRC32 crc = new CRC32();
+        while (offset + HEADER + BODY_PREFIX + TRAILER <= size) {
+            int bodyLength = buffer.getInt((int) offset);
+            long end = offset + HEADER + bodyLength + TRAILER;
+            if (bodyLength < BODY_PREFIX || bodyLength > MAX_BODY || end > size) break;
+
+            crc.reset();
+            crc.update(buffer.slice((int) offset + HEADER, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt((int) (offset + HEADER + bodyLength))) break;
+
+            int bodyStart = (int) offset + HEADER;
+            long savedAt = buffer.getLong(bodyStart);
+            short keyLength = buffer.getShort(bodyStart + Long.BYTES);
+            if (keyLength < 0 || BODY_PREFIX + keyLength > bodyLength) break;
+            byte[] key = new byte[keyLength];
+            buffer.get(bodyStart + BODY_PREFIX, key);
+            int valueStart = bodyStart + BODY_PREFIX + keyLength;
+            index.put(new String(key, StandardCharsets.UTF_8),
+                    new IndexEntry(offset, end - offset, valueStart, bodyLength - BODY_PREFIX - keyLength, savedAt));
+            offset = end;
+        }
+        return offset;
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        synchronized (this) {
+            if (lock == null && !tryTakeOver()) {
+                // Another process owns the log; what it writes is what a restart will see
+                pending.clear();
+                return;
+            }
+        }
+        for (String key : pending.keySet()) {
+            Object value = pending.get(key);
+            if (value == null) continue;
+            try {
+                append(key, mapper.writeValueAsBytes(value));
+            } catch (IOException ex) {
+                log.warn("Could not persist {}: {}", key, ex.getMessage());
+            } finally {
+                pending.remove(key, value);
+            }
+        }
+    }
+
+    private boolean tryTakeOver() {
+        try {
+            lock = tryLock();
+            if (lock == null) return false;
+            log.info("Activity store {} released by its previous owner, taking over writes", logPath);
+            openLog();
+            return true;
+        } catch (IOException ex) {
+            log.warn("Could not take over activity store {}: {}", logPath, ex.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void append(String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = BODY_PREFIX + keyBytes.length + value.length;
+        if (bodyLength > MAX_BODY) {
+            log.warn("Not persisting {}: {} bytes exceeds the record limit", key, bodyLength);
+            return;
+        }
+        if (size + HEADER + bodyLength + TRAILER > MAX_LOG_BYTES) {
+            log.warn("Activity store {} is full, not persisting {} until it is compacted on restart", logPath, key);
+            return;
+        }
+        long savedAt = System.currentTimeMillis();
+        ByteBuffer record = ByteBuffer.allocate(HEADER + bodyLength + TRAILER);
+        record.putInt(bodyLength).putLong(savedAt).putShort((short) keyBytes.length).put(keyBytes).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER, bodyLength);
+        record.putInt((int) crc.getValue()).flip();
+
+        long offset = size;
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        size += record.capacity();
+        index.put(key, new IndexEntry(offset, record.capacity(), offset + HEADER + BODY_PREFIX + keyBytes.length,
+                value.length, savedAt));
+    }
+
+    // Rewrites only the latest record of every key, then swaps the new log in atomically
+    private void compact() throws IOException {
+        Path compacted = logPath.resolveSibling(LOG_FILE + ".compact");
+        long before = size;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (IndexEntry entry : index.values()) {
+                ByteBuffer record = mapped.slice((int) entry.recordOffset(), (int) entry.recordLength());
+                while (record.hasRemaining()) out.write(record);
+            }
+            out.force(true);
+        }
+        Files.move(compacted, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openLog();
+        log.info("Compacted activity store {} from {} to {} bytes", logPath, before, size);
+    }
+
+    private FileLock tryLock() throws IOException {
+        try {
+            return lockChannel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // Held by another store in this JVM
+            return null;
+        }
+    }
+
+    private long liveBytes() {
+        return index.values().stream().mapToLong(IndexEntry::recordLength).sum();
+    }
+
+    private ByteBuffer read(IndexEntry entry) {
+        if (entry.valueOffset() + entry.valueLength() > mapped.capacity()) remap();
+        return mapped.slice((int) entry.valueOffset(), entry.valueLength());
+    }
+
+    private void remap() {
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not map activity store " + logPath, ex);
+        }
+    }
+
+    private record IndexEntry(long recordOffset, long recordLength, long valueOffset, int valueLength, long savedAt) {
+    }
+}
@@ -0,0 +1,147 @@
+package io.example.github.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes GitHub REST list responses token by token straight into our models.
+ * Only the fields RepoSummary / CommitInfo need are read; every other value (owner, permissions,
+ * verification, ...) is skipped without being materialised.
+ */
+public class GithubJsonDecoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public static JsonParser parser(InputStream body) throws IOException {
+        return JSON.createParser(body);
+    }
+
+    public static JsonParser parser(byte[] body) throws IOException {
+        return JSON.createParser(body);
+    }
+
+    // Reads a [ {repo}, ... ] array
+    public static List<RepoSummary> readRepos(JsonParser p) throws IOException {
+        List<RepoSummary> repos = new ArrayList<>();
+        if (p.nextToken() != JsonToken.START_ARRAY) return repos;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            repos.add(readRepo(p));
+        }
+        return repos;
+    }
+
+    // Reads a [ {commit}, ... ] array, stopping after `limit` commits
+    public static List<CommitInfo> readCommits(JsonParser p, int limit) throws IOException {
+        List<CommitInfo> commits = new ArrayList<>();
+        if (p.nextToken() != JsonToken.START_ARRAY) return commits;
+        while (commits.size() < limit && p.nextToken() == JsonToken.START_OBJECT) {
+            commits.add(readCommit(p));
+        }
+        return commits;
+    }
+
+    private static RepoSummary readRepo(JsonParser p) throws IOException {
+        RepoSummary r = new RepoSummary();
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "name" -> r.setName(textOrNull(p, value));
+                case "full_name" -> r.setFullName(textOrNull(p, value));
+                case "private" -> r.setPrivate(value == JsonToken.VALUE_TRUE);
+                case "fork" -> r.setFork(value == JsonToken.VALUE_TRUE);
+                case "html_url" -> r.setHtmlUrl(textOrNull(p, value));
+                case "default_branch" -> r.setDefaultBranch(textOrNull(p, value));
+                default -> p.skipChildren();
+            }
+        }
+        return r;
+    }
+
+    private static CommitInfo readCommit(JsonParser p) throws IOException {
+        CommitInfo c = new CommitInfo();
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "sha" -> c.setSha(textOrNull(p, value));
+                case "html_url" -> c.setHtmlUrl(textOrNull(p, value));
+                case "parents" -> c.setParents(readParents(p, value));
+                case "commit" -> {
+                    if (value == JsonToken.START_OBJECT) readCommitDetail(p, c);
+                    else p.skipChildren();
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return c;
+    }
+
+    // [ {"sha": ..., "url": ...}, ... ] down to the SHAs
+    private static List<String> readParents(JsonParser p, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<String> parents = new ArrayList<>(2);
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            String field;
+            while ((field = p.nextFieldName()) != null) {
+                JsonToken parentValue = p.nextToken();
+                if (field.equals("sha")) {
+                    String sha = textOrNull(p, parentValue);
+                    if (sha != null) parents.add(sha);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return parents;
+    }
+
+    // The nested "commit" object: message plus the git author
+    private static void readCommitDetail(JsonParser p, CommitInfo c) throws IOException {
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "message" -> c.setMessage(textOrNull(p, value));
+                case "author" -> {
+                    if (value == JsonToken.START_OBJECT) readAuthor(p, c);
+                    else p.skipChildren();
+                }
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private static void readAuthor(JsonParser p, CommitInfo c) throws IOException {
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "name" -> c.setAuthorName(textOrNull(p, value));
+                case "email" -> c.setAuthorEmail(textOrNull(p, value));
+                case "date" -> {
+                    String date = textOrNull(p, value);
+                    if (date != null) c.setTimestamp(GithubMappers.parseTimestamp(date));
+                }
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private static String textOrNull(JsonParser p, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) return p.getText();
+        p.skipChildren();
+        return null;
+    }
+}
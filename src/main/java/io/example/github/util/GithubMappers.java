@@ -5,13 +5,20 @@ import io.example.github.model.RepoSummary;
 import org.springframework.http.HttpHeaders;
 
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class GithubMappers {
 
+    // pattern: <url>; rel="next", <url>; rel="last"
+    private static final Pattern LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
+    // Anchor on ? or & so per_page=100 is not mistaken for the page number
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
     @SuppressWarnings("unchecked")
     public static RepoSummary mapRepo(Map<String, Object> json) {
         RepoSummary r = new RepoSummary();
@@ -29,6 +36,10 @@ public class GithubMappers {
         CommitInfo c = new CommitInfo();
         c.setSha((String) json.get("sha"));
         c.setHtmlUrl((String) json.get("html_url"));
+        List<Map<String, Object>> parents = (List<Map<String, Object>>) json.get("parents");
+        if (parents != null) {
+            c.setParents(parents.stream().map(parent -> (String) parent.get("sha")).toList());
+        }
         Map<String, Object> commit = (Map<String, Object>) json.get("commit");
         if (commit != null) {
             c.setMessage((String) commit.get("message"));
@@ -38,26 +49,70 @@ public class GithubMappers {
                 c.setAuthorEmail((String) author.get("email"));
                 String date = (String) author.get("date");
                 if (date != null) {
-                    c.setTimestamp(OffsetDateTime.parse(date));
+                    c.setTimestamp(parseTimestamp(date));
                 }
             }
         }
         return c;
     }
 
+    @SuppressWarnings("unchecked")
+    public static RepoSummary mapGraphqlRepo(Map<String, Object> node) {
+        RepoSummary r = new RepoSummary();
+        r.setName((String) node.get("name"));
+        r.setFullName((String) node.get("nameWithOwner"));
+        r.setPrivate(Boolean.TRUE.equals(node.get("isPrivate")));
+        r.setFork(Boolean.TRUE.equals(node.get("isFork")));
+        r.setHtmlUrl((String) node.get("url"));
+        Map<String, Object> branch = (Map<String, Object>) node.get("defaultBranchRef");
+        if (branch != null) {
+            r.setDefaultBranch((String) branch.get("name"));
+        }
+        return r;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static CommitInfo mapGraphqlCommit(Map<String, Object> node) {
+        CommitInfo c = new CommitInfo();
+        c.setSha((String) node.get("oid"));
+        c.setMessage((String) node.get("message"));
+        c.setHtmlUrl((String) node.get("url"));
+        Map<String, Object> author = (Map<String, Object>) node.get("author");
+        if (author != null) {
+            c.setAuthorName((String) author.get("name"));
+            c.setAuthorEmail((String) author.get("email"));
+            String date = (String) author.get("date");
+            if (date != null) {
+                c.setTimestamp(parseTimestamp(date));
+            }
+        }
+        return c;
+    }
+
+    // A commit from a push webhook payload
+    @SuppressWarnings("unchecked")
+    public static CommitInfo mapPushCommit(Map<String, Object> json) {
+        CommitInfo c = new CommitInfo();
+        c.setSha((String) json.get("id"));
+        c.setMessage((String) json.get("message"));
+        c.setHtmlUrl((String) json.get("url"));
+        String timestamp = (String) json.get("timestamp");
+        if (timestamp != null) {
+            c.setTimestamp(parseTimestamp(timestamp));
+        }
+        Map<String, Object> author = (Map<String, Object>) json.get("author");
+        if (author != null) {
+            c.setAuthorName((String) author.get("name"));
+            c.setAuthorEmail((String) author.get("email"));
+        }
+        return c;
+    }
+
     // Parse the RFC 5988 Link header; return next URL if present
     public static String parseNextLink(HttpHeaders headers) {
         String link = headers.getFirst("Link");
         if (link == null) return null;
-
-        // pattern: <url>; rel="next", <url>; rel="last"
-        Pattern p = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
-        Matcher m = p.matcher(link);
-        Map<String, String> rels = new HashMap<>();
-        while (m.find()) {
-            rels.put(m.group(2), m.group(1));
-        }
-        return rels.get("next");
+        return parseLinks(link).get("next");
     }
 
     // Parse the RFC 5988 Link header and extract pagination info
@@ -65,22 +120,14 @@ public class GithubMappers {
         String link = headers.getFirst("Link");
         if (link == null) return new PaginationInfo(null, null, 0);
 
-        // pattern: <url>; rel="next", <url>; rel="last"
-        Pattern p = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
-        Matcher m = p.matcher(link);
-        Map<String, String> rels = new HashMap<>();
-        while (m.find()) {
-            rels.put(m.group(2), m.group(1));
-        }
-        
+        Map<String, String> rels = parseLinks(link);
         String nextUrl = rels.get("next");
         String lastUrl = rels.get("last");
         int totalPages = 0;
         
         if (lastUrl != null) {
             // Extract page number from last URL: .../repos?page=5&per_page=30
-            Pattern pagePattern = Pattern.compile("page=(\\d+)");
-            Matcher pageMatcher = pagePattern.matcher(lastUrl);
+            Matcher pageMatcher = PAGE.matcher(lastUrl);
             if (pageMatcher.find()) {
                 totalPages = Integer.parseInt(pageMatcher.group(1));
             }
@@ -89,6 +136,47 @@ public class GithubMappers {
         return new PaginationInfo(nextUrl, lastUrl, totalPages);
     }
 
+    /**
+     * Parses an ISO-8601 timestamp. GitHub's REST and GraphQL APIs always send UTC in the form
+     * {@code 2024-01-31T12:34:56Z}, which is read field by field; anything else goes through
+     * {@link OffsetDateTime#parse}.
+     */
+    public static OffsetDateTime parseTimestamp(String value) {
+        if (value.length() == 20 && value.charAt(4) == '-' && value.charAt(7) == '-' && value.charAt(10) == 'T'
+                && value.charAt(13) == ':' && value.charAt(16) == ':' && value.charAt(19) == 'Z') {
+            int year = digits(value, 0, 4);
+            int month = digits(value, 5, 7);
+            int day = digits(value, 8, 10);
+            int hour = digits(value, 11, 13);
+            int minute = digits(value, 14, 16);
+            int second = digits(value, 17, 19);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                return OffsetDateTime.of(year, month, day, hour, minute, second, 0, ZoneOffset.UTC);
+            }
+        }
+        return OffsetDateTime.parse(value);
+    }
+
+    private static Map<String, String> parseLinks(String link) {
+        Matcher m = LINK.matcher(link);
+        Map<String, String> rels = new HashMap<>(4);
+        while (m.find()) {
+            rels.put(m.group(2), m.group(1));
+        }
+        return rels;
+    }
+
+    // Value of the decimal digits in [from, to), or -1 if any character is not a digit
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
     public static class PaginationInfo {
         private final String nextUrl;
         private final String lastUrl;
@@ -0,0 +1,69 @@
+package io.example.github.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key onto one in-flight computation.
+ * The key is released as soon as the computation completes, so nothing is cached beyond that point.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code loader} on the calling thread unless an identical call is already running,
+     * in which case the caller waits for and shares that result (or exception).
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Returns a view of the in-flight future for {@code key}, starting one with {@code loader}
+     * if none is running. Each caller gets its own copy, so cancelling it never affects other callers.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        boolean[] started = new boolean[1];
+        // A completed future can still be mapped until its removal callback has run; never join that one
+        CompletableFuture<V> future = inFlight.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isDone()) return existing;
+            started[0] = true;
+            return loader.get();
+        });
+        if (started[0]) {
+            future.whenComplete((v, ex) -> inFlight.remove(key, future));
+        }
+        return future.copy();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+}
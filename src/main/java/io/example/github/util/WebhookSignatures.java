@@ -0,0 +1,34 @@
+package io.example.github.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Checks the {@code X-Hub-Signature-256} header GitHub sends with every webhook delivery:
+ * {@code sha256=} followed by the hex HMAC-SHA256 of the raw body, keyed with the webhook secret.
+ */
+public class WebhookSignatures {
+
+    private static final String PREFIX = "sha256=";
+
+    public static String sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return PREFIX + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    public static boolean isValid(String secret, byte[] body, String header) {
+        if (secret == null || secret.isBlank() || header == null || !header.startsWith(PREFIX)) return false;
+        // Constant-time comparison, so the signature cannot be guessed byte by byte
+        return MessageDigest.isEqual(sign(secret, body).getBytes(StandardCharsets.US_ASCII),
+                header.getBytes(StandardCharsets.US_ASCII));
+    }
+}
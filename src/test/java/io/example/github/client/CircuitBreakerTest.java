@@ -0,0 +1,75 @@
+package io.example.github.client;
+
+import io.example.github.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(true, 3, Duration.ofSeconds(30), now::get);
+
+    @Test
+    @DisplayName("Should open after consecutive upstream failures and fail fast without calling")
+    void call_AfterThresholdFailures_ShouldRejectWithoutCalling() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpServerErrorException.class, () -> breaker.call(this::badGateway));
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        UpstreamUnavailableException ex = assertThrows(UpstreamUnavailableException.class,
+                () -> breaker.call(calls::incrementAndGet));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0, calls.get());
+        assertEquals(30, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("Should let one trial through after the open duration and close on success")
+    void call_AfterOpenDuration_ShouldCloseOnSuccessfulTrial() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpServerErrorException.class, () -> breaker.call(this::badGateway));
+        }
+        now.addAndGet(30_000);
+
+        // Act
+        String result = breaker.call(() -> "ok");
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should not count client errors as upstream failures")
+    void call_WhenClientErrors_ShouldStayClosed() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpClientErrorException.class, () -> breaker.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private String badGateway() {
+        throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+    }
+}
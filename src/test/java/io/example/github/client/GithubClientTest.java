@@ -0,0 +1,358 @@
+package io.example.github.client;
+
+import io.example.github.exception.RateLimitBudgetExceededException;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.PaginationResult;
+import io.example.github.model.RepoSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+@DisplayName("GithubClient Tests")
+class GithubClientTest {
+
+    private static final String BASE_URL = "https://api.github.test";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitScheduler rateLimit = new RateLimitScheduler(true, 0.1, 5, Duration.ofSeconds(30));
+    private MockRestServiceServer server;
+    private GithubClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new GithubClient(builder.build(), new ConditionalRequestCache(100), new UpstreamLimiter(4), rateLimit,
+                retryPolicy(), noHedging(), new CircuitBreaker(false, 5, Duration.ofSeconds(30)),
+                new UpstreamMetrics(registry), executor, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should send If-None-Match and serve cached commits on 304")
+    void fetchRecentCommits_WhenNotModified_ShouldServeCachedCommits() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        server.expect(requestTo(BASE_URL + "/repos/octocat/hello/commits?per_page=2"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(commitsJson(), MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(BASE_URL + "/repos/octocat/hello/commits?per_page=2"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act
+        List<CommitInfo> first = client.fetchRecentCommits("octocat", "hello", 2);
+        List<CommitInfo> second = client.fetchRecentCommits("octocat", "hello", 2);
+
+        // Assert
+        server.verify();
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+        assertEquals("sha1", second.get(0).getSha());
+    }
+
+    @Test
+    @DisplayName("Should replay cached Link header when a repo page is not modified")
+    void fetchAllRepos_WhenPagesNotModified_ShouldFollowCachedLinks() {
+        // Arrange
+        HttpHeaders page1 = new HttpHeaders();
+        page1.setETag("\"p1\"");
+        page1.set(HttpHeaders.LINK, "<" + BASE_URL + "/users/octocat/repos?per_page=100&page=2&sort=updated>; rel=\"next\"");
+        HttpHeaders page2 = new HttpHeaders();
+        page2.set(HttpHeaders.LAST_MODIFIED, "Mon, 01 Jan 2024 00:00:00 GMT");
+
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=1&sort=updated"))
+                .andRespond(withSuccess(repoJson("one"), MediaType.APPLICATION_JSON).headers(page1));
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=2&sort=updated"))
+                .andRespond(withSuccess(repoJson("two"), MediaType.APPLICATION_JSON).headers(page2));
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=1&sort=updated"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"p1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=2&sort=updated"))
+                .andExpect(header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 01 Jan 2024 00:00:00 GMT"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act
+        client.fetchAllRepos("octocat");
+        List<RepoSummary> repos = client.fetchAllRepos("octocat");
+
+        // Assert
+        server.verify();
+        assertEquals(List.of("one", "two"), repos.stream().map(RepoSummary::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should page through commits since a date and report when pages were left unread")
+    void fetchCommitsSince_WhenMorePagesThanAllowed_ShouldReportHasNext() {
+        // Arrange
+        String url = BASE_URL + "/repos/octocat/hello/commits?per_page=100&since=2024-01-01T00:00:00Z&page=";
+        for (int page = 1; page <= 2; page++) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.LINK, "<" + url + (page + 1) + ">; rel=\"next\"");
+            server.expect(requestTo(url + page))
+                    .andRespond(withSuccess(commitsJson(), MediaType.APPLICATION_JSON).headers(headers));
+        }
+
+        // Act
+        PaginationResult<CommitInfo> result = client.fetchCommitsSince("octocat", "hello",
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"), 2);
+
+        // Assert
+        server.verify();
+        assertEquals(4, result.getRepos().size());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should answer an empty user page past the end without asking for organization repositories")
+    void fetchReposByPage_WhenUserPageEmpty_ShouldNotFallBackToOrgs() {
+        // Arrange
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=10&page=5&sort=updated"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // Act
+        PaginationResult<RepoSummary> result = client.fetchReposByPage("octocat", 5, 10);
+
+        // Assert
+        server.verify();
+        assertTrue(result.getRepos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should list organization repositories when the user is not found")
+    void fetchReposByPage_WhenUserNotFound_ShouldFallBackToOrgs() {
+        // Arrange
+        server.expect(requestTo(BASE_URL + "/users/acme/repos?per_page=10&page=1&sort=updated"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo(BASE_URL + "/orgs/acme/repos?per_page=10&page=1&sort=updated"))
+                .andRespond(withSuccess(repoJson("tools"), MediaType.APPLICATION_JSON));
+
+        // Act
+        PaginationResult<RepoSummary> result = client.fetchReposByPage("acme", 1, 10);
+
+        // Assert
+        server.verify();
+        assertEquals(List.of("tools"), result.getRepos().stream().map(RepoSummary::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should fetch remaining pages concurrently when rel=last is known and keep page order")
+    void fetchAllRepos_WithLastLink_ShouldPrefetchRemainingPagesInOrder() {
+        // Arrange
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+        client = new GithubClient(builder.build(), new ConditionalRequestCache(100), new UpstreamLimiter(4), rateLimit,
+                retryPolicy(), noHedging(), new CircuitBreaker(false, 5, Duration.ofSeconds(30)),
+                new UpstreamMetrics(registry), executor, 3);
+
+        HttpHeaders first = new HttpHeaders();
+        first.set(HttpHeaders.LINK,
+                "<" + BASE_URL + "/users/octocat/repos?per_page=100&page=2&sort=updated>; rel=\"next\", "
+                        + "<" + BASE_URL + "/users/octocat/repos?per_page=100&page=4&sort=updated>; rel=\"last\"");
+        server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=1&sort=updated"))
+                .andRespond(withSuccess(repoJson("p1"), MediaType.APPLICATION_JSON).headers(first));
+        for (int page = 2; page <= 4; page++) {
+            server.expect(requestTo(BASE_URL + "/users/octocat/repos?per_page=100&page=" + page + "&sort=updated"))
+                    .andRespond(withSuccess(repoJson("p" + page), MediaType.APPLICATION_JSON));
+        }
+
+        // Act
+        List<RepoSummary> repos = client.fetchAllRepos("octocat");
+
+        // Assert
+        server.verify();
+        assertEquals(List.of("p1", "p2", "p3", "p4"), repos.stream().map(RepoSummary::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should treat 409 'Git Repository is empty' as no commits")
+    void fetchRecentCommits_WhenRepositoryEmpty_ShouldReturnEmptyList() {
+        // Arrange
+        server.expect(requestTo(BASE_URL + "/repos/octocat/empty/commits?per_page=20"))
+                .andRespond(withStatus(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"message\":\"Git Repository is empty.\"}"));
+
+        // Act
+        List<CommitInfo> commits = client.fetchRecentCommits("octocat", "empty", 20);
+
+        // Assert
+        server.verify();
+        assertTrue(commits.isEmpty());
+        assertEquals(1.0, registry.get("github.upstream.fallbacks").tag("reason", "empty-repository").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should ask for gzip and decode a compressed response")
+    void fetchRecentCommits_WhenResponseGzipped_ShouldInflateBody() throws IOException {
+        // Arrange
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL).requestInterceptor(new GzipResponseInterceptor());
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new GithubClient(builder.build(), new ConditionalRequestCache(100), new UpstreamLimiter(4), rateLimit,
+                retryPolicy(), noHedging(), new CircuitBreaker(false, 5, Duration.ofSeconds(30)),
+                new UpstreamMetrics(registry), executor, 3);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(commitsJson().getBytes(StandardCharsets.UTF_8));
+        }
+        server.expect(requestTo(BASE_URL + "/repos/octocat/hello/commits?per_page=2"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzipped.toByteArray(), MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        // Act
+        List<CommitInfo> commits = client.fetchRecentCommits("octocat", "hello", 2);
+
+        // Assert
+        server.verify();
+        assertEquals(List.of("sha1", "sha2"), commits.stream().map(CommitInfo::getSha).toList());
+    }
+
+    @Test
+    @DisplayName("Should tag upstream calls with a bounded endpoint kind")
+    void endpoint_ShouldClassifyPathsWithoutLogins() {
+        // Act & Assert
+        assertEquals("user-repos", UpstreamMetrics.endpoint("/users/orgs/repos"));
+        assertEquals("org-repos", UpstreamMetrics.endpoint("/api/v3/orgs/users/repos"));
+        assertEquals("commits", UpstreamMetrics.endpoint("/repos/octocat/hello/commits"));
+        assertEquals("graphql", UpstreamMetrics.endpoint("/graphql"));
+        assertEquals("other", UpstreamMetrics.endpoint("/repos"));
+    }
+
+    @Test
+    @DisplayName("Should retry a 502 with backoff and return the next successful response")
+    void fetchRecentCommits_WhenBadGatewayOnce_ShouldRetry() {
+        // Arrange
+        server.expect(requestTo(BASE_URL + "/repos/octocat/hello/commits?per_page=2"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(requestTo(BASE_URL + "/repos/octocat/hello/commits?per_page=2"))
+                .andRespond(withSuccess(commitsJson(), MediaType.APPLICATION_JSON));
+
+        // Act
+        List<CommitInfo> commits = client.fetchRecentCommits("octocat", "hello", 2);
+
+        // Assert
+        server.verify();
+        assertEquals(2, commits.size());
+    }
+
+    @Test
+    @DisplayName("Should not retry a 404")
+    void fetchRecentCommits_WhenNotFound_ShouldNotRetry() {
+        // Arrange
+        server.expect(requestTo(BASE_URL + "/repos/octocat/missing/commits?per_page=2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // Act & Assert
+        assertThrows(HttpClientErrorException.NotFound.class,
+                () -> client.fetchRecentCommits("octocat", "missing", 2));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should fail fast without retrying when the rate limit budget rejects the call")
+    void fetchRecentCommits_WhenBudgetRejects_ShouldNotRetry() {
+        // Arrange: GitHub asked for a 1s pause, longer than this scheduler may wait but short enough to retry
+        RateLimitScheduler impatient = new RateLimitScheduler(true, 0.1, 5, Duration.ZERO);
+        HttpHeaders pause = new HttpHeaders();
+        pause.set(HttpHeaders.RETRY_AFTER, "1");
+        impatient.update(pause, HttpStatus.FORBIDDEN);
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new GithubClient(builder.build(), new ConditionalRequestCache(100), new UpstreamLimiter(4), impatient,
+                retryPolicy(), noHedging(), new CircuitBreaker(false, 5, Duration.ofSeconds(30)),
+                new UpstreamMetrics(registry), executor, 3);
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(RateLimitBudgetExceededException.class, () -> client.fetchRecentCommits("octocat", "hello", 2));
+
+        // Assert
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(500).toNanos());
+        assertEquals(1, impatient.getRejected());
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should hedge a call that runs past the tracked latency percentile")
+    void hedgingPolicy_WhenPrimaryIsSlow_ShouldReturnHedgedResult() {
+        // Arrange
+        HedgingPolicy hedging = new HedgingPolicy(true, 0.95, 3, Duration.ofMillis(20));
+        for (int i = 0; i < 3; i++) hedging.tracker("commits").record(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = hedging.execute("commits", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        });
+
+        // Assert
+        assertEquals("fast", result);
+        assertEquals(2, calls.get());
+    }
+
+    private static RetryPolicy retryPolicy() {
+        return new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1));
+    }
+
+    private static HedgingPolicy noHedging() {
+        return new HedgingPolicy(false, 0.95, 20, Duration.ofMillis(50));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String repoJson(String name) {
+        return """
+                [{"name":"%s","full_name":"octocat/%s","private":false,"fork":false,
+                  "html_url":"https://github.com/octocat/%s","default_branch":"main"}]
+                """.formatted(name, name, name);
+    }
+
+    private static String commitsJson() {
+        return """
+                [{"sha":"sha1","html_url":"https://github.com/octocat/hello/commit/sha1",
+                  "commit":{"message":"first","author":{"name":"Octo","email":"octo@github.com","date":"2024-01-02T10:00:00Z"}}},
+                 {"sha":"sha2","html_url":"https://github.com/octocat/hello/commit/sha2",
+                  "commit":{"message":"second","author":{"name":"Octo","email":"octo@github.com","date":"2024-01-01T10:00:00Z"}}}]
+                """;
+    }
+}
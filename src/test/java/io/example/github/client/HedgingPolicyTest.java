@@ -0,0 +1,57 @@
+package io.example.github.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HedgingPolicy Tests")
+class HedgingPolicyTest {
+
+    private final HedgingPolicy hedging = new HedgingPolicy(true, 0.95, 1, Duration.ofMillis(20));
+    private final UpstreamLimiter limiter = new UpstreamLimiter(2);
+
+    @AfterEach
+    void tearDown() {
+        hedging.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should take the faster copy of a slow attempt and interrupt the other so it frees its permit")
+    void execute_WhenPrimaryIsSlow_ShouldReturnHedgeAndReleaseLoserPermit() throws Exception {
+        // Arrange
+        hedging.timed("commits", () -> "warm-up");
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+        // Act
+        String result = hedging.execute("commits", () -> limiter.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    loserInterrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return "primary";
+            }
+            return "hedge";
+        }));
+
+        // Assert
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        assertTrue(loserInterrupted.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+}
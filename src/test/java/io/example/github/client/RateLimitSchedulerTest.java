@@ -0,0 +1,92 @@
+package io.example.github.client;
+
+import io.example.github.config.MetricsConfig;
+import io.example.github.exception.RateLimitBudgetExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimitScheduler Tests")
+class RateLimitSchedulerTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitScheduler scheduler = new RateLimitScheduler(true, 0.1, 2, Duration.ofSeconds(5), now::get);
+
+    @BeforeEach
+    void setUp() {
+        new MetricsConfig().rateLimitMetrics(scheduler).bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("Should let calls through until GitHub reports a budget")
+    void acquire_WithUnknownBudget_ShouldNotWait() {
+        assertDoesNotThrow(scheduler::acquire);
+    }
+
+    @Test
+    @DisplayName("Should allow a burst of a fraction of the remaining budget, then reject when the wait is too long")
+    void acquire_AfterBurst_ShouldRejectWithRetryAfter() {
+        // Arrange: 30 calls left for the next hour, burst = 10% = 3 calls
+        scheduler.update(budget(30, 3600), HttpStatus.OK);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            scheduler.acquire();
+        }
+        RateLimitBudgetExceededException ex = assertThrows(RateLimitBudgetExceededException.class, scheduler::acquire);
+
+        // Assert
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(27, scheduler.snapshot().remaining());
+        assertEquals(1.0, registry.get("github.ratelimit.rejected").functionCounter().count());
+        assertEquals(27.0, registry.get("github.ratelimit.remaining").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should honour Retry-After on secondary rate limits")
+    void acquire_AfterRetryAfter_ShouldPause() {
+        // Arrange
+        HttpHeaders headers = budget(1000, 3600);
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        scheduler.update(headers, HttpStatus.FORBIDDEN);
+
+        // Act & Assert
+        assertThrows(RateLimitBudgetExceededException.class, scheduler::acquire);
+        now.addAndGet(Duration.ofSeconds(61).toMillis());
+        assertDoesNotThrow(scheduler::acquire);
+    }
+
+    @Test
+    @DisplayName("Should give the token back when GitHub answers 304, which it does not count")
+    void update_WhenNotModified_ShouldRefundToken() {
+        // Arrange: 30 calls left, burst of 3
+        scheduler.update(budget(30, 3600), HttpStatus.OK);
+        for (int i = 0; i < 3; i++) {
+            scheduler.acquire();
+        }
+
+        // Act
+        scheduler.update(budget(30, 3600), HttpStatus.NOT_MODIFIED);
+
+        // Assert
+        assertDoesNotThrow(scheduler::acquire);
+        assertThrows(RateLimitBudgetExceededException.class, scheduler::acquire);
+    }
+
+    private HttpHeaders budget(long remaining, long secondsUntilReset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(now.get() / 1000 + secondsUntilReset));
+        return headers;
+    }
+}
@@ -0,0 +1,77 @@
+package io.example.github.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UpstreamLimiter Tests")
+class UpstreamLimiterTest {
+
+    private final UpstreamLimiter limiter = new UpstreamLimiter(1);
+
+    @Test
+    @DisplayName("Should release the permit when the upstream call throws")
+    void call_WhenUpstreamThrows_ShouldReleasePermit() {
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> limiter.call(() -> {
+            throw new IllegalArgumentException("boom");
+        }));
+
+        // Assert
+        assertEquals(0, limiter.getInFlight());
+        assertEquals("ok", limiter.call(() -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Should count calls in flight and callers queued behind them")
+    void call_WhenPermitsExhausted_ShouldQueueCallers() throws Exception {
+        // Arrange
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> limiter.call(() -> {
+                entered.countDown();
+                await(release);
+                return "first";
+            }), threads);
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Act
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> limiter.call(() -> "second"), threads);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (limiter.getQueued() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            // Assert
+            assertEquals(1, limiter.getInFlight());
+            assertEquals(1, limiter.getQueued());
+            assertFalse(second.isDone());
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("second", second.get(5, TimeUnit.SECONDS));
+            assertEquals(0, limiter.getInFlight());
+            assertEquals(0, limiter.getQueued());
+        } finally {
+            release.countDown();
+            threads.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package io.example.github.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.example.github.config.WebConfig;
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
 import io.example.github.model.CommitInfo;
 import io.example.github.model.Page;
 import io.example.github.model.RepoActivity;
 import io.example.github.model.RepoSummary;
+import io.example.github.exception.BulkBudgetExceededException;
+import io.example.github.exception.CursorExpiredException;
+import io.example.github.exception.GlobalExceptionHandler;
+import io.example.github.exception.InvalidCursorException;
+import io.example.github.service.ActivityStream;
 import io.example.github.service.GithubService;
+import io.example.github.service.HotActivityRefresher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,17 +23,37 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("GithubController Tests")
@@ -31,6 +62,9 @@ class GithubControllerTest {
     @Mock
     private GithubService githubService;
 
+    @Mock
+    private HotActivityRefresher hotActivity;
+
     @InjectMocks
     private GithubController githubController;
 
@@ -65,11 +99,11 @@ class GithubControllerTest {
     void getActivity_WithDefaultParameters_ShouldReturnSuccess() {
         // Arrange
         String username = "testuser";
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20, null);
 
         // Assert
         assertNotNull(response);
@@ -80,7 +114,7 @@ class GithubControllerTest {
         assertEquals(20, response.getBody().getPageSize());
         assertEquals(1, response.getBody().getTotalElements());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20, null);
     }
 
     @Test
@@ -92,18 +126,18 @@ class GithubControllerTest {
         int size = 10;
         int limit = 5;
         
-        when(githubService.fetchActivityAsync(eq(username), eq(limit), eq(page), eq(size)))
+        when(githubService.fetchActivityAsync(eq(username), eq(limit), eq(page), eq(size), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, page, size, limit);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, page, size, limit, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, limit, page, size);
+        verify(githubService, times(1)).fetchActivityAsync(username, limit, page, size, null);
     }
 
     @Test
@@ -113,11 +147,11 @@ class GithubControllerTest {
         String username = "emptyuser";
         Page<RepoActivity> emptyPage = new Page<>(Arrays.asList(), 0, 20, 0);
         
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20), isNull()))
                 .thenReturn(emptyPage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20, null);
 
         // Assert
         assertNotNull(response);
@@ -127,7 +161,7 @@ class GithubControllerTest {
         assertEquals(0, response.getBody().getNumberOfElements());
         assertEquals(0, response.getBody().getTotalElements());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20, null);
     }
 
     @Test
@@ -150,11 +184,11 @@ class GithubControllerTest {
         
         Page<RepoActivity> multiPage = new Page<>(Arrays.asList(activity1, activity2), 0, 20, 2);
         
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20), isNull()))
                 .thenReturn(multiPage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20, null);
 
         // Assert
         assertNotNull(response);
@@ -164,7 +198,7 @@ class GithubControllerTest {
         assertEquals(2, response.getBody().getTotalElements());
         assertEquals(2, response.getBody().getContent().size());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20, null);
     }
 
 
@@ -175,15 +209,15 @@ class GithubControllerTest {
         String username = "testuser";
         RuntimeException serviceException = new RuntimeException("Service error");
         
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(20), isNull()))
                 .thenThrow(serviceException);
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
-            githubController.getActivity(username, 0, 20, 20);
+            githubController.getActivity(username, 0, 20, 20, null);
         });
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, 20, null);
     }
 
     @Test
@@ -191,17 +225,17 @@ class GithubControllerTest {
     void getActivity_WithNullUsername_ShouldHandleGracefully() {
         // Arrange
         String username = null;
-        when(githubService.fetchActivityAsync(isNull(), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(isNull(), eq(20), eq(0), eq(20), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(githubService, times(1)).fetchActivityAsync(null, 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(null, 20, 0, 20, null);
     }
 
     @Test
@@ -209,17 +243,17 @@ class GithubControllerTest {
     void getActivity_WithEmptyUsername_ShouldHandleGracefully() {
         // Arrange
         String username = "";
-        when(githubService.fetchActivityAsync(eq(""), eq(20), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(""), eq(20), eq(0), eq(20), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, 20, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(githubService, times(1)).fetchActivityAsync("", 20, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync("", 20, 0, 20, null);
     }
 
     @Test
@@ -229,17 +263,17 @@ class GithubControllerTest {
         String username = "testuser";
         int largePage = 1000;
         
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(largePage), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(largePage), eq(20), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, largePage, 20, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, largePage, 20, 20, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, largePage, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, largePage, 20, null);
     }
 
     @Test
@@ -249,17 +283,17 @@ class GithubControllerTest {
         String username = "testuser";
         int maxSize = 100;
         
-        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(maxSize)))
+        when(githubService.fetchActivityAsync(eq(username), eq(20), eq(0), eq(maxSize), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, maxSize, 20);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, maxSize, 20, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, maxSize);
+        verify(githubService, times(1)).fetchActivityAsync(username, 20, 0, maxSize, null);
     }
 
     @Test
@@ -269,16 +303,203 @@ class GithubControllerTest {
         String username = "testuser";
         int maxLimit = 100;
         
-        when(githubService.fetchActivityAsync(eq(username), eq(maxLimit), eq(0), eq(20)))
+        when(githubService.fetchActivityAsync(eq(username), eq(maxLimit), eq(0), eq(20), isNull()))
                 .thenReturn(samplePage);
 
         // Act
-        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, maxLimit);
+        ResponseEntity<Page<RepoActivity>> response = githubController.getActivity(username, 0, 20, maxLimit, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(githubService, times(1)).fetchActivityAsync(username, maxLimit, 0, 20);
+        verify(githubService, times(1)).fetchActivityAsync(username, maxLimit, 0, 20, null);
+    }
+
+    @Test
+    @DisplayName("Should answer in CBOR when asked for it and in JSON by default")
+    void getActivity_WithCborAccept_ShouldNegotiateBinaryEncoding() throws Exception {
+        // Arrange
+        when(githubService.fetchActivityAsync(anyString(), anyInt(), anyInt(), anyInt(), any())).thenReturn(samplePage);
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()));
+        new WebConfig(new DefaultListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class))
+                .extendMessageConverters(converters);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController)
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new)).build();
+
+        // Act
+        MvcResult cbor = mvc.perform(get("/api/github/activity/testuser").accept(MediaType.parseMediaType("application/cbor"))).andReturn();
+        MvcResult json = mvc.perform(get("/api/github/activity/testuser")).andReturn();
+
+        // Assert
+        assertEquals("application/cbor", cbor.getResponse().getContentType());
+        JsonNode decoded = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals("test-repo", decoded.at("/content/0/repository/name").asText());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, json.getResponse().getContentType());
+        assertTrue(json.getResponse().getContentAsString().contains("\"test-repo\""));
+    }
+
+    @Test
+    @DisplayName("Should fetch bulk activity for the posted usernames and reject an empty list")
+    void getBulkActivity_WithUsernames_ShouldReturnActivityPerUser() throws Exception {
+        // Arrange
+        when(githubService.fetchBulkActivity(List.of("testuser", "other"), 5)).thenReturn(new BulkActivity(
+                Map.of("testuser", List.of(sampleRepoActivity), "other", List.of()), Map.of(), 1, false));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController).build();
+
+        // Act
+        MvcResult ok = mvc.perform(post("/api/github/activity/bulk").param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"usernames\":[\"testuser\",\"other\"]}")).andReturn();
+        MvcResult empty = mvc.perform(post("/api/github/activity/bulk")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"usernames\":[]}")).andReturn();
+
+        // Assert
+        assertEquals(200, ok.getResponse().getStatus());
+        assertTrue(ok.getResponse().getContentAsString().contains("\"repositories\":1"));
+        assertEquals(400, empty.getResponse().getStatus());
+        verify(githubService, times(1)).fetchBulkActivity(anyList(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should frame streamed activity as NDJSON lines by default and as named SSE events on request")
+    void streamActivity_WithAcceptHeader_ShouldFrameAsNdjsonOrSse() throws Exception {
+        // Arrange
+        when(githubService.streamActivity(eq("testuser"), eq(20), eq(0), eq(20), any())).thenAnswer(invocation -> {
+            Consumer<RepoActivity> onActivity = invocation.getArgument(4);
+            onActivity.accept(sampleRepoActivity);
+            onActivity.accept(sampleRepoActivity);
+            return new ActivityStream(CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null));
+        });
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController).build();
+
+        // Act
+        MvcResult ndjson = mvc.perform(asyncDispatch(mvc.perform(get("/api/github/activity/testuser/stream")).andReturn())).andReturn();
+        MvcResult sse = mvc.perform(asyncDispatch(mvc.perform(get("/api/github/activity/testuser/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)).andReturn())).andReturn();
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, ndjson.getResponse().getContentType());
+        String[] lines = ndjson.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"test-repo\""));
+        assertTrue(sse.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        String events = sse.getResponse().getContentAsString();
+        assertEquals(2, events.split("event:activity\ndata:\\{").length - 1);
+        assertTrue(events.endsWith("}\n\n"));
+    }
+
+    @Test
+    @DisplayName("Should answer a stream that cannot start with the failure's own status")
+    void streamActivity_WhenListingFails_ShouldNotCommitOk() throws Exception {
+        // Arrange
+        when(githubService.streamActivity(anyString(), anyInt(), anyInt(), anyInt(), any())).thenReturn(new ActivityStream(
+                CompletableFuture.failedFuture(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)),
+                new CompletableFuture<>()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController)
+                .setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        // Act
+        MvcResult result = mvc.perform(asyncDispatch(mvc.perform(get("/api/github/activity/testuser/stream")).andReturn())).andReturn();
+
+        // Assert
+        assertEquals(404, result.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should keep parent SHAs out of the commits in responses")
+    void getActivity_WithParentShas_ShouldNotSerializeThem() throws Exception {
+        // Arrange
+        sampleRepoActivity.getCommits().get(0).setParents(List.of("parent1"));
+        when(githubService.fetchActivityAsync(eq("testuser"), anyInt(), anyInt(), anyInt(), isNull())).thenReturn(samplePage);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController).build();
+
+        // Act
+        MvcResult result = mvc.perform(get("/api/github/activity/testuser")).andReturn();
+
+        // Assert
+        assertEquals(200, result.getResponse().getStatus());
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("\"sha\""));
+        assertFalse(body.contains("parent"));
+    }
+
+    @Test
+    @DisplayName("Should return activity stats with their window and completeness")
+    void getActivityStats_ShouldReturnStatsForRequestedDays() throws Exception {
+        // Arrange
+        ActivityStats stats = new ActivityStats(LocalDate.parse("2024-06-08"), LocalDate.parse("2024-06-10"), 3,
+                new int[]{0, 1, 2}, Map.of("alice", 3L), Map.of("testuser/test-repo", 3L), 1, false);
+        when(githubService.fetchActivityStats("testuser", 3)).thenReturn(stats);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController).build();
+
+        // Act
+        MvcResult result = mvc.perform(get("/api/github/activity/testuser/stats").param("days", "3")).andReturn();
+
+        // Assert
+        assertEquals(200, result.getResponse().getStatus());
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("\"totalCommits\":3"));
+        assertTrue(body.contains("\"perDay\":[0,1,2]"));
+        assertTrue(body.contains("\"complete\":false"));
+        verify(githubService).fetchActivityStats("testuser", 3);
+    }
+
+    @Test
+    @DisplayName("Should refuse an over-budget bulk stream with 429 and Retry-After before streaming")
+    void streamBulkActivity_WhenBudgetExceeded_ShouldAnswerTooManyRequests() throws Exception {
+        // Arrange
+        when(githubService.streamBulkActivity(anyList(), anyInt(), any())).thenReturn(new ActivityStream(
+                CompletableFuture.failedFuture(new BulkBudgetExceededException("over budget", 42)), new CompletableFuture<>()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController)
+                .setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        // Act
+        MvcResult result = mvc.perform(asyncDispatch(mvc.perform(post("/api/github/activity/bulk/stream")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"usernames\":[\"testuser\"]}")).andReturn())).andReturn();
+
+        // Assert
+        assertEquals(429, result.getResponse().getStatus());
+        assertEquals("42", result.getResponse().getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Should answer an expired cursor with 410 and a malformed one with 400")
+    void fetchActivityByCursor_WhenCursorRejected_ShouldMapStatus() throws Exception {
+        // Arrange
+        when(githubService.fetchActivityByCursor(eq("testuser"), anyInt(), anyInt(), eq("old"), any()))
+                .thenThrow(new CursorExpiredException("Cursor expired, start again without a cursor"));
+        when(githubService.fetchActivityByCursor(eq("testuser"), anyInt(), anyInt(), eq("bad"), any()))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController)
+                .setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        // Act
+        MvcResult expired = mvc.perform(get("/api/github/activity/testuser/cursor").param("cursor", "old")).andReturn();
+        MvcResult invalid = mvc.perform(get("/api/github/activity/testuser/cursor").param("cursor", "bad")).andReturn();
+
+        // Assert
+        assertEquals(410, expired.getResponse().getStatus());
+        assertEquals(400, invalid.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should cancel the stream when the response times out")
+    void streamActivity_WhenResponseTimesOut_ShouldCancelStream() throws Exception {
+        // Arrange
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        when(githubService.streamActivity(anyString(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(new ActivityStream(CompletableFuture.completedFuture(null), done));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(githubController).build();
+        MvcResult started = mvc.perform(asyncDispatch(mvc.perform(get("/api/github/activity/testuser/stream")).andReturn())).andReturn();
+        MockAsyncContext context = (MockAsyncContext) started.getRequest().getAsyncContext();
+
+        // Act
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+
+        // Assert
+        assertTrue(done.isCancelled());
     }
 }
@@ -0,0 +1,127 @@
+package io.example.github.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import io.example.github.service.ActivityAggregator;
+import io.example.github.service.CommitWindowStore;
+import io.example.github.service.LastKnownGoodStore;
+import io.example.github.service.RepoListCache;
+import io.example.github.service.WebhookIngestService;
+import io.example.github.store.ActivityStore;
+import io.example.github.util.WebhookSignatures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WebhookController Tests")
+class WebhookControllerTest {
+
+    private static final String SECRET = "It's a Secret to Everybody";
+
+    private CommitWindowStore commitWindows;
+    private RepoListCache repoCache;
+    private WebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        commitWindows = new CommitWindowStore(100, Duration.ofHours(1), Duration.ofHours(1), ActivityStore.disabled());
+        repoCache = new RepoListCache(100, Duration.ofMinutes(5));
+        LastKnownGoodStore lastKnownGood = new LastKnownGoodStore(100, Duration.ofHours(1), ActivityStore.disabled());
+        controller = new WebhookController(new WebhookIngestService(commitWindows, repoCache, lastKnownGood,
+                new ActivityAggregator(90, Duration.ofMinutes(5), 100)),
+                new ObjectMapper(), SECRET);
+    }
+
+    @Test
+    @DisplayName("Should merge pushed commits into the commit window and mark the repository push-tracked")
+    void receive_Push_ShouldUpdateCommitWindow() throws IOException {
+        // Arrange
+        commitWindows.replace("octocat", "hello", List.of(commit("sha2"), commit("sha1")), 3);
+        byte[] body = payload("push.json");
+
+        // Act
+        ResponseEntity<?> response = controller.receive("push", "d1", WebhookSignatures.sign(SECRET, body), body);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        List<CommitInfo> commits = commitWindows.get("octocat", "hello").commits();
+        assertEquals(List.of("sha4", "sha3", "sha2"), commits.stream().map(CommitInfo::getSha).toList());
+        assertEquals(OffsetDateTime.parse("2024-01-04T10:00:00+01:00"), commits.get(0).getTimestamp());
+        assertTrue(commitWindows.isPushTracked("octocat", "hello"));
+    }
+
+    @Test
+    @DisplayName("Should drop the commit window when a push does not start at its newest commit")
+    void receive_PushNotContinuingWindow_ShouldInvalidateWindow() throws IOException {
+        // Arrange: the push goes from sha2, but the window only knows up to sha1
+        commitWindows.replace("octocat", "hello", List.of(commit("sha1")), 3);
+        byte[] body = payload("push.json");
+
+        // Act
+        ResponseEntity<?> response = controller.receive("push", "d4", WebhookSignatures.sign(SECRET, body), body);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertNull(commitWindows.get("octocat", "hello"));
+        assertFalse(commitWindows.isPushTracked("octocat", "hello"));
+    }
+
+    @Test
+    @DisplayName("Should rename the repository in the cached listing")
+    void receive_RepositoryRenamed_ShouldUpdateListing() throws IOException {
+        // Arrange
+        repoCache.put("octocat", List.of(repo("other"), repo("hello")));
+        byte[] body = payload("repository-renamed.json");
+
+        // Act
+        controller.receive("repository", "d2", WebhookSignatures.sign(SECRET, body), body);
+
+        // Assert
+        assertEquals(List.of("other", "hello-world"), repoCache.get("octocat").stream().map(RepoSummary::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject a delivery whose signature does not match")
+    void receive_WithInvalidSignature_ShouldReturnUnauthorized() throws IOException {
+        // Arrange
+        commitWindows.replace("octocat", "hello", List.of(commit("sha2")), 3);
+        byte[] body = payload("push.json");
+
+        // Act
+        ResponseEntity<?> response = controller.receive("push", "d3", WebhookSignatures.sign("wrong", body), body);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(1, commitWindows.get("octocat", "hello").commits().size());
+    }
+
+    private static byte[] payload(String name) throws IOException {
+        try (InputStream in = WebhookControllerTest.class.getResourceAsStream("/webhooks/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static CommitInfo commit(String sha) {
+        CommitInfo commit = new CommitInfo();
+        commit.setSha(sha);
+        return commit;
+    }
+
+    private static RepoSummary repo(String name) {
+        RepoSummary repo = new RepoSummary();
+        repo.setName(name);
+        repo.setFullName("octocat/" + name);
+        return repo;
+    }
+}
@@ -0,0 +1,112 @@
+package io.example.github.load;
+
+import io.example.github.support.GithubSimulator;
+import io.example.github.support.LoadDriver;
+import io.example.github.support.LoadDriver.Report;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the controller endpoints of a running application against {@link GithubSimulator} and logs
+ * throughput and latency percentiles. Excluded from the default build; run with {@code mvn -Pload test}.
+ * <p>
+ * Tuned with system properties: {@code load.duration} (PT10S), {@code load.concurrency} (32),
+ * {@code load.users} (50), {@code load.repos} (200 per user), {@code load.latency} (PT0.05S per GitHub call).
+ */
+@Tag("load")
+@DisplayName("Activity Load Tests")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"github.store.enabled=false", "logging.level.io.example.github=WARN",
+                "logging.level.io.example.github.load=INFO"})
+class ActivityLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLoadTest.class);
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT10S"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int REPOS = Integer.getInteger("load.repos", 200);
+
+    private static final GithubSimulator GITHUB = simulator();
+
+    @LocalServerPort
+    private int port;
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @DynamicPropertySource
+    static void github(DynamicPropertyRegistry registry) {
+        registry.add("github.base-url", GITHUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopGithub() {
+        GITHUB.close();
+    }
+
+    @Test
+    @DisplayName("Activity pages across users")
+    void activityPages() {
+        // Arrange: every user's listing and commit windows get cached during warm-up
+        IntFunction<String> urls = n -> url("/api/github/activity/" + user(n) + "?page=" + (n / USERS % 5) + "&size=10&limit=10");
+        driver.run("activity (warm-up)", CONCURRENCY, Duration.ofSeconds(3), urls);
+
+        // Act
+        Report report = driver.run("activity", CONCURRENCY, DURATION, urls);
+
+        // Assert
+        log.info("{} | {} GitHub calls so far", report, GITHUB.calls());
+        assertTrue(report.requests() > 0);
+        assertEquals(0, report.errors());
+    }
+
+    @Test
+    @DisplayName("Repository pages across users")
+    void repositoryPages() {
+        // Arrange
+        IntFunction<String> urls = n -> url("/api/github/repo/" + user(n) + "/page?page=" + (n / USERS % 3 + 1) + "&per_page=30");
+        driver.run("repositories (warm-up)", CONCURRENCY, Duration.ofSeconds(3), urls);
+
+        // Act
+        Report report = driver.run("repositories", CONCURRENCY, DURATION, urls);
+
+        // Assert
+        log.info("{} | {} GitHub calls so far", report, GITHUB.calls());
+        assertTrue(report.requests() > 0);
+        assertEquals(0, report.errors());
+    }
+
+    // Every fifth owner is an organization, and every tenth repository is empty (409)
+    private static GithubSimulator simulator() {
+        GithubSimulator simulator = GithubSimulator.start()
+                .latency(Duration.parse(System.getProperty("load.latency", "PT0.05S")))
+                .commitsPerRepo(30)
+                .emptyRepoEvery(10);
+        for (int i = 0; i < USERS; i++) {
+            if (i % 5 == 4) simulator.org(user(i), REPOS);
+            else simulator.user(user(i), REPOS);
+        }
+        return simulator;
+    }
+
+    private static String user(int n) {
+        return "user-" + (n % USERS);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + port + path;
+    }
+}
@@ -0,0 +1,118 @@
+package io.example.github.service;
+
+import io.example.github.model.ActivityStats;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ActivityAggregator Tests")
+class ActivityAggregatorTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-10T12:00:00Z");
+
+    private final ActivityAggregator aggregator =
+            new ActivityAggregator(30, Duration.ofMinutes(5), 100, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Should count each commit once per day, author and repository within the window")
+    void stats_WithOverlappingFeeds_ShouldCountEachShaOnce() {
+        // Arrange
+        aggregator.record("octocat", "hello", List.of(commit("a", "alice", 0), commit("b", "bob", 1)));
+        aggregator.record("octocat", "hello", List.of(commit("c", "alice", 0), commit("a", "alice", 0)));
+        aggregator.record("octocat", "world", List.of(commit("d", "alice", 2), commit("e", "bob", 20)));
+
+        // Act
+        ActivityStats stats = aggregator.stats("octocat", List.of(repo("hello"), repo("world")), 7);
+
+        // Assert
+        assertEquals(LocalDate.parse("2024-06-04"), stats.getFrom());
+        assertEquals(LocalDate.parse("2024-06-10"), stats.getTo());
+        assertEquals(4, stats.getTotalCommits());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1, 1, 2}, stats.getPerDay());
+        assertEquals(Map.of("alice", 3L, "bob", 1L), stats.getPerAuthor());
+        assertEquals("alice", stats.getPerAuthor().keySet().iterator().next());
+        assertEquals(Map.of("octocat/hello", 3L, "octocat/world", 1L), stats.getPerRepository());
+        // Commits that merely arrived do not prove nothing else happened in the window
+        assertFalse(stats.isComplete());
+        assertFalse(aggregator.isFresh("octocat", "hello", stats.getFrom()));
+    }
+
+    @Test
+    @DisplayName("Should count commits dated in the future on today instead of wiping the ring")
+    void record_WithFutureDatedCommit_ShouldCountItOnToday() {
+        // Arrange
+        aggregator.record("octocat", "hello", List.of(commit("old", "alice", 20)));
+
+        // Act
+        aggregator.record("octocat", "hello", List.of(commit("skewed", "bob", -400)));
+        ActivityStats stats = aggregator.stats("octocat", List.of(repo("hello")), 30);
+
+        // Assert
+        assertEquals(2, stats.getTotalCommits());
+        assertEquals(1, stats.getPerDay()[29]);
+        assertEquals(1, stats.getPerDay()[9]);
+    }
+
+    @Test
+    @DisplayName("Should be complete and fresh only for the days a sync covered")
+    void recordSync_WhenTruncated_ShouldCoverOnlyDaysAfterOldestCommit() {
+        // Arrange
+        LocalDate since = aggregator.windowStart(30);
+
+        // Act
+        aggregator.recordSync("octocat", "hello", List.of(commit("a", "alice", 0), commit("b", "bob", 3)), since, true);
+        aggregator.recordSync("octocat", "world", List.of(commit("c", "alice", 5)), since, false);
+
+        // Assert
+        assertTrue(aggregator.isFresh("octocat", "hello", aggregator.windowStart(3)));
+        assertFalse(aggregator.isFresh("octocat", "hello", aggregator.windowStart(4)));
+        assertTrue(aggregator.isFresh("octocat", "world", since));
+        assertTrue(aggregator.stats("octocat", List.of(repo("hello"), repo("world")), 3).isComplete());
+        ActivityStats week = aggregator.stats("octocat", List.of(repo("hello"), repo("world")), 7);
+        assertFalse(week.isComplete());
+        assertEquals(3, week.getTotalCommits());
+    }
+
+    @Test
+    @DisplayName("Should drop days that fall out of the horizon as newer commits arrive")
+    void record_WhenNewerCommitsArrive_ShouldRollOldDaysOut() {
+        // Arrange
+        aggregator.record("octocat", "hello", List.of(commit("old", "alice", 40)));
+        aggregator.record("octocat", "hello", List.of(commit("mid", "alice", 29), commit("new", "bob", 0)));
+
+        // Act
+        ActivityStats stats = aggregator.stats("octocat", List.of(repo("hello")), 365);
+
+        // Assert
+        assertEquals(30, stats.getPerDay().length);
+        assertEquals(2, stats.getTotalCommits());
+        assertEquals(Map.of("alice", 1L, "bob", 1L), stats.getPerAuthor());
+    }
+
+    private static RepoSummary repo(String name) {
+        RepoSummary repo = new RepoSummary();
+        repo.setName(name);
+        repo.setFullName("octocat/" + name);
+        return repo;
+    }
+
+    private static CommitInfo commit(String sha, String author, int daysAgo) {
+        CommitInfo commit = new CommitInfo();
+        commit.setSha(sha);
+        commit.setAuthorName(author);
+        commit.setTimestamp(OffsetDateTime.ofInstant(NOW.minus(Duration.ofDays(daysAgo)), ZoneOffset.UTC));
+        return commit;
+    }
+}
@@ -0,0 +1,79 @@
+package io.example.github.service;
+
+import io.example.github.model.CommitInfo;
+import io.example.github.store.ActivityStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CommitWindowStore Tests")
+class CommitWindowStoreTest {
+
+    private final CommitWindowStore store = new CommitWindowStore(10, Duration.ofHours(1), Duration.ofHours(1), ActivityStore.disabled());
+
+    @Test
+    @DisplayName("Should prepend new commits, drop duplicates and keep the window at capacity")
+    void merge_ShouldDeduplicateAndTrim() {
+        // Arrange
+        store.replace("octocat", "hello", commits("c", "b", "a"), 3);
+
+        // Act
+        CommitWindowStore.Window window = store.merge("octocat", "Hello", commits("d", "c"), 3);
+
+        // Assert
+        assertEquals(List.of("d", "c", "b"), shas(window));
+        assertEquals("d", window.newestSha());
+    }
+
+    @Test
+    @DisplayName("Should replace the window when a full page of new commits may have left a gap")
+    void merge_WhenFullPage_ShouldReplaceWindow() {
+        // Arrange
+        store.replace("octocat", "hello", commits("b", "a"), 2);
+
+        // Act
+        CommitWindowStore.Window window = store.merge("octocat", "hello", commits("z", "y"), 2);
+
+        // Assert
+        assertEquals(List.of("z", "y"), shas(window));
+    }
+
+    @Test
+    @DisplayName("Should only accept commits since the mark that connect to the window")
+    void isContinuedBy_ShouldRequireLinkToNewestAndKnownParents() {
+        // Arrange
+        CommitWindowStore.Window window = store.replace("octocat", "hello", commits("b", "a"), 3);
+
+        // Act & Assert
+        assertTrue(window.isContinuedBy(List.of(commit("c", "b"), commit("b", "a"))));
+        assertTrue(window.isContinuedBy(List.of(commit("c", "b"))));
+        // A merge of a side branch dated before the mark: its commits were never returned
+        assertFalse(window.isContinuedBy(List.of(commit("m", "b", "side"), commit("b", "a"))));
+        // Force push: the newest known commit is gone
+        assertFalse(window.isContinuedBy(List.of(commit("x", "w"))));
+        assertFalse(window.isContinuedBy(List.of()));
+    }
+
+    private static List<CommitInfo> commits(String... shas) {
+        return java.util.Arrays.stream(shas).map(sha -> {
+            CommitInfo c = new CommitInfo();
+            c.setSha(sha);
+            return c;
+        }).toList();
+    }
+
+    private static List<String> shas(CommitWindowStore.Window window) {
+        return window.commits().stream().map(CommitInfo::getSha).toList();
+    }
+
+    private static CommitInfo commit(String sha, String... parents) {
+        CommitInfo c = new CommitInfo();
+        c.setSha(sha);
+        c.setParents(List.of(parents));
+        return c;
+    }
+}
@@ -0,0 +1,498 @@
+package io.example.github.service;
+
+import io.example.github.client.GithubClient;
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.exception.BulkBudgetExceededException;
+import io.example.github.exception.InvalidCursorException;
+import io.example.github.exception.UpstreamUnavailableException;
+import io.example.github.model.ActivityStats;
+import io.example.github.model.BulkActivity;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.CursorPage;
+import io.example.github.model.Page;
+import io.example.github.model.PaginationResult;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import io.example.github.model.UserActivity;
+import io.example.github.store.ActivityStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GithubServiceImpl Tests")
+class GithubServiceImplTest {
+
+    @Mock
+    private GithubClient client;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ExecutorService listingExecutor = Executors.newFixedThreadPool(2);
+    private RateLimitScheduler rateLimit;
+    private LastKnownGoodStore lastKnownGood;
+    private RepoListCache repoCache;
+    private GithubServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        lastKnownGood = new LastKnownGoodStore(100, Duration.ofHours(1), ActivityStore.disabled());
+        repoCache = new RepoListCache(100, Duration.ofMinutes(5));
+        rateLimit = new RateLimitScheduler(true, 0.1, 5, Duration.ofSeconds(30));
+        service = new GithubServiceImpl(client, repoCache, lastKnownGood,
+                new CommitWindowStore(100, Duration.ofHours(1), Duration.ofHours(1), ActivityStore.disabled()),
+                new CursorSnapshots(100, Duration.ofMinutes(10)),
+                new ActivityAggregator(90, Duration.ofMinutes(5), 100), executor, listingExecutor, rateLimit,
+                Duration.ofSeconds(2), 4, 4, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        listingExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should serve last known commits marked stale when GitHub is unavailable")
+    void fetchActivityAsync_WhenUpstreamUnavailable_ShouldServeStaleCommits() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(List.of(repo("hello")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "hello", 5))
+                .thenReturn(List.of(commit("sha1")))
+                .thenThrow(new UpstreamUnavailableException("open", 30));
+        service.fetchActivityAsync("octocat", 5, 0, 10);
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 5, 0, 10);
+
+        // Assert
+        assertTrue(page.isStale());
+        assertTrue(page.getContent().get(0).isStale());
+        assertEquals("sha1", page.getContent().get(0).getCommits().get(0).getSha());
+    }
+
+    @Test
+    @DisplayName("Should propagate the failure when nothing is known about the repository")
+    void fetchActivityAsync_WhenUnavailableWithoutSnapshot_ShouldFail() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(List.of(repo("hello")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "hello", 5)).thenThrow(new UpstreamUnavailableException("open", 30));
+
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.fetchActivityAsync("octocat", 5, 0, 10));
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Should only fetch commits since the newest one seen and merge them into the window")
+    void fetchActivityAsync_WhenWindowKnown_ShouldFetchSinceHighWaterMark() {
+        // Arrange
+        OffsetDateTime mark = OffsetDateTime.parse("2024-01-02T10:00:00Z");
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(List.of(repo("hello")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "hello", 3))
+                .thenReturn(List.of(commit("sha2", mark), commit("sha1", mark.minusDays(1))));
+        when(client.fetchRecentCommits("octocat", "hello", 3, mark))
+                .thenReturn(List.of(commit("sha3", mark.plusDays(1)), commit("sha2", mark)));
+        service.fetchActivityAsync("octocat", 3, 0, 10);
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 3, 0, 10);
+
+        // Assert
+        assertEquals(List.of("sha3", "sha2", "sha1"),
+                page.getContent().get(0).getCommits().stream().map(CommitInfo::getSha).toList());
+        verify(client, times(1)).fetchRecentCommits("octocat", "hello", 3);
+    }
+
+    @Test
+    @DisplayName("Should fetch the window again when commits since the mark do not connect to it")
+    void fetchActivityAsync_WhenSinceMarkMissesMergedCommits_ShouldRefetchWindow() {
+        // Arrange
+        OffsetDateTime mark = OffsetDateTime.parse("2024-01-02T10:00:00Z");
+        CommitInfo merge = commit("sha4", mark.plusDays(1));
+        merge.setParents(List.of("sha2", "side"));
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(List.of(repo("hello")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "hello", 3))
+                .thenReturn(List.of(commit("sha2", mark), commit("sha1", mark.minusDays(1))))
+                .thenReturn(List.of(merge, commit("side", mark.minusDays(5)), commit("sha2", mark)));
+        when(client.fetchRecentCommits("octocat", "hello", 3, mark)).thenReturn(List.of(merge, commit("sha2", mark)));
+        service.fetchActivityAsync("octocat", 3, 0, 10);
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 3, 0, 10);
+
+        // Assert
+        assertEquals(List.of("sha4", "side", "sha2"),
+                page.getContent().get(0).getCommits().stream().map(CommitInfo::getSha).toList());
+        verify(client, times(2)).fetchRecentCommits("octocat", "hello", 3);
+    }
+
+    @Test
+    @DisplayName("Should answer at the deadline with finished repositories and a status for the others")
+    void fetchActivityAsync_WhenDeadlinePasses_ShouldReturnPartialResults() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10))
+                .thenReturn(new PaginationResult<>(List.of(repo("ok"), repo("empty"), repo("broken"), repo("hung")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "ok", 5)).thenReturn(List.of(commit("sha1")));
+        when(client.fetchRecentCommits("octocat", "empty", 5)).thenReturn(List.of());
+        when(client.fetchRecentCommits("octocat", "broken", 5)).thenThrow(new IllegalStateException("boom"));
+        when(client.fetchRecentCommits("octocat", "hung", 5)).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 5, 0, 10, Duration.ofMillis(300));
+
+        // Assert
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertEquals(List.of(RepoActivity.Status.OK, RepoActivity.Status.EMPTY_REPOSITORY,
+                        RepoActivity.Status.ERROR, RepoActivity.Status.TIMED_OUT),
+                page.getContent().stream().map(RepoActivity::getStatus).toList());
+        assertEquals("sha1", page.getContent().get(0).getCommits().get(0).getSha());
+    }
+
+    @Test
+    @DisplayName("Should start the deadline once the page's repositories are listed")
+    void fetchActivityAsync_WhenListingIsSlow_ShouldNotSpendDeadlineOnIt() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10)).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return new PaginationResult<>(List.of(repo("hello")), 0, 1, false);
+        });
+        when(client.fetchRecentCommits("octocat", "hello", 5)).thenReturn(List.of(commit("sha1")));
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 5, 0, 10, Duration.ofMillis(200));
+
+        // Assert
+        assertEquals(RepoActivity.Status.OK, page.getContent().get(0).getStatus());
+        assertEquals("sha1", page.getContent().get(0).getCommits().get(0).getSha());
+    }
+
+    @Test
+    @DisplayName("Should list only the GitHub page matching the window and take the total from rel=last")
+    void fetchActivityAsync_WithoutCachedListing_ShouldListOnlyTheWindow() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 3, 2)).thenReturn(new PaginationResult<>(List.of(repo("e"), repo("f")), 50, 3, true));
+        when(client.fetchReposByPage("octocat", 50, 2)).thenReturn(new PaginationResult<>(List.of(repo("last")), 0, 50, false));
+        when(client.fetchRecentCommits(eq("octocat"), anyString(), eq(5))).thenReturn(List.of(commit("sha1")));
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 5, 2, 2);
+
+        // Assert
+        assertEquals(List.of("e", "f"), page.getContent().stream().map(a -> a.getRepository().getName()).toList());
+        assertEquals(99, page.getTotalElements());
+        assertEquals(50, page.getTotalPages());
+        assertTrue(page.hasNext());
+        verify(client, never()).fetchAllRepos(anyString());
+    }
+
+    @Test
+    @DisplayName("Should count the exact total from the first and last pages when asked past the end")
+    void fetchActivityAsync_PastTheEnd_ShouldReturnExactTotal() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 9, 2)).thenReturn(new PaginationResult<>(List.of(), 0, 9, false));
+        when(client.fetchReposByPage("octocat", 1, 2)).thenReturn(new PaginationResult<>(List.of(repo("a"), repo("b")), 3, 1, true));
+        when(client.fetchReposByPage("octocat", 3, 2)).thenReturn(new PaginationResult<>(List.of(repo("e")), 0, 3, false));
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 5, 8, 2);
+
+        // Assert
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(5, page.getTotalElements());
+        verify(client, never()).fetchRecentCommits(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should page through the snapshot of the first page even when the listing changes")
+    void fetchActivityByCursor_WhenListingChanges_ShouldKeepSnapshotOrder() {
+        // Arrange
+        when(client.fetchAllRepos("octocat"))
+                .thenReturn(List.of(repo("a"), repo("b"), repo("c")))
+                .thenReturn(List.of(repo("c"), repo("a"), repo("b")));
+        when(client.fetchRecentCommits(eq("octocat"), anyString(), eq(5))).thenReturn(List.of(commit("sha1")));
+        CursorPage<RepoActivity> first = service.fetchActivityByCursor("octocat", 5, 2, null, null);
+        repoCache.invalidate("octocat");
+        service.fetchBulkActivity(List.of("octocat"), 5);
+
+        // Act
+        CursorPage<RepoActivity> second = service.fetchActivityByCursor("octocat", 5, 2, first.getNextCursor(), null);
+
+        // Assert
+        assertEquals(List.of("a", "b"), first.getContent().stream().map(a -> a.getRepository().getName()).toList());
+        assertEquals(List.of("c"), second.getContent().stream().map(a -> a.getRepository().getName()).toList());
+        assertNull(second.getNextCursor());
+        assertEquals(3, second.getTotalElements());
+        assertThrows(InvalidCursorException.class,
+                () -> service.fetchRepositoriesByCursor("octocat", 2, first.getNextCursor()));
+        assertThrows(InvalidCursorException.class,
+                () -> service.fetchActivityByCursor("octocat", 5, 2, "not a cursor", null));
+    }
+
+    @Test
+    @DisplayName("Should sync every commit of the stats window and flag stats whose sync was truncated")
+    void fetchActivityStats_ShouldSyncWindowAndReportCompleteness() {
+        // Arrange
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        when(client.fetchAllRepos("octocat")).thenReturn(List.of(repo("hello"), repo("busy")));
+        when(client.fetchCommitsSince(eq("octocat"), eq("hello"), any(), anyInt()))
+                .thenReturn(new PaginationResult<>(List.of(commit("sha1", now), commit("sha2", now.minusDays(1))), 1, 1, false));
+        when(client.fetchCommitsSince(eq("octocat"), eq("busy"), any(), anyInt()))
+                .thenReturn(new PaginationResult<>(List.of(commit("sha3", now), commit("sha4", now.minusDays(2))), 0, 10, true));
+
+        // Act
+        ActivityStats week = service.fetchActivityStats("octocat", 7);
+        ActivityStats today = service.fetchActivityStats("octocat", 1);
+
+        // Assert
+        assertEquals(4, week.getTotalCommits());
+        assertFalse(week.isComplete());
+        assertEquals(LocalDate.now(ZoneOffset.UTC).minusDays(6), week.getFrom());
+        verify(client).fetchCommitsSince("octocat", "hello", week.getFrom().atStartOfDay().atOffset(ZoneOffset.UTC), 10);
+        // Both syncs cover today, so the one-day stats are complete without calling GitHub again
+        assertTrue(today.isComplete());
+        assertEquals(2, today.getTotalCommits());
+        verify(client, times(2)).fetchCommitsSince(anyString(), anyString(), any(), anyInt());
+        verify(client, never()).fetchRecentCommits(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should cut a repository page from the last full listing when GitHub is unavailable")
+    void fetchRepositoriesByPage_WhenUnavailable_ShouldSliceLastKnownListing() {
+        // Arrange
+        lastKnownGood.putRepos("octocat", List.of(repo("a"), repo("b"), repo("c")));
+        when(client.fetchReposByPage(eq("octocat"), anyInt(), anyInt())).thenThrow(new UpstreamUnavailableException("open", 30));
+
+        // Act
+        Page<RepoSummary> page = service.fetchRepositoriesByPage("octocat", 2, 2);
+
+        // Assert
+        assertTrue(page.isStale());
+        assertEquals(List.of("c"), page.getContent().stream().map(RepoSummary::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should fetch a repository listed for several users once and report failed users")
+    void fetchBulkActivity_WithSharedRepository_ShouldFetchItOnce() {
+        // Arrange
+        when(client.fetchAllRepos("octocat")).thenReturn(List.of(repo("hello"), repo("acme", "shared")));
+        when(client.fetchAllRepos("acme")).thenReturn(List.of(repo("acme", "shared")));
+        when(client.fetchAllRepos("ghost")).thenThrow(new UpstreamUnavailableException("open", 30));
+        when(client.fetchRecentCommits("octocat", "hello", 5)).thenReturn(List.of(commit("sha1")));
+        when(client.fetchRecentCommits("acme", "shared", 5)).thenReturn(List.of(commit("sha2")));
+
+        // Act
+        BulkActivity bulk = service.fetchBulkActivity(List.of("octocat", "acme", "ACME", "ghost"), 5);
+
+        // Assert
+        assertEquals(List.of("octocat", "acme"), List.copyOf(bulk.getUsers().keySet()));
+        assertEquals(List.of("octocat/hello", "acme/shared"), bulk.getUsers().get("octocat").stream()
+                .map(a -> a.getRepository().getFullName()).toList());
+        assertEquals("sha2", bulk.getUsers().get("acme").get(0).getCommits().get(0).getSha());
+        assertEquals(2, bulk.getRepositories());
+        assertTrue(bulk.getErrors().containsKey("ghost"));
+        verify(client, times(1)).fetchRecentCommits("acme", "shared", 5);
+        verify(client, times(1)).fetchAllRepos("acme");
+    }
+
+    @Test
+    @DisplayName("Should stream a shared repository to every user that lists it and report failed users")
+    void streamBulkActivity_WithSharedRepository_ShouldDeliverToEachUser() throws Exception {
+        // Arrange
+        when(client.fetchAllRepos("octocat")).thenReturn(List.of(repo("acme", "shared")));
+        when(client.fetchAllRepos("acme")).thenReturn(List.of(repo("acme", "shared")));
+        when(client.fetchAllRepos("ghost")).thenThrow(new UpstreamUnavailableException("open", 30));
+        when(client.fetchRecentCommits("acme", "shared", 5)).thenReturn(List.of(commit("sha1")));
+        List<UserActivity> delivered = new CopyOnWriteArrayList<>();
+
+        // Act
+        ActivityStream stream = service.streamBulkActivity(List.of("octocat", "acme", "ghost"), 5, delivered::add);
+        stream.done().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(stream.started().isDone());
+        assertEquals(3, delivered.size());
+        assertEquals("ghost", delivered.get(0).getUsername());
+        assertNotNull(delivered.get(0).getError());
+        assertEquals(List.of("octocat", "acme"), delivered.subList(1, 3).stream().map(UserActivity::getUsername).toList());
+        assertTrue(delivered.subList(1, 3).stream().allMatch(a -> "sha1".equals(a.getActivity().getCommits().get(0).getSha())));
+        verify(client, times(1)).fetchRecentCommits("acme", "shared", 5);
+    }
+
+    @Test
+    @DisplayName("Should refuse a bulk batch that needs more than its share of the rate limit before streaming")
+    void streamBulkActivity_WhenBatchExceedsBudget_ShouldFailBeforeStarting() {
+        // Arrange
+        rateLimit.update(rateLimitHeaders(3), HttpStatus.OK);
+        when(client.fetchAllRepos("octocat")).thenReturn(List.of(repo("a"), repo("b"), repo("c")));
+        List<UserActivity> delivered = new CopyOnWriteArrayList<>();
+
+        // Act
+        ActivityStream stream = service.streamBulkActivity(List.of("octocat"), 5, delivered::add);
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> stream.started().get(5, TimeUnit.SECONDS));
+        BulkBudgetExceededException tooMany = assertInstanceOf(BulkBudgetExceededException.class, ex.getCause());
+        assertTrue(tooMany.getRetryAfterSeconds() > 0);
+        assertTrue(stream.done().isCompletedExceptionally());
+        assertTrue(delivered.isEmpty());
+        verify(client, never()).fetchRecentCommits(anyString(), anyString(), anyInt());
+        assertThrows(BulkBudgetExceededException.class, () -> service.fetchBulkActivity(List.of("octocat"), 5));
+    }
+
+    @Test
+    @DisplayName("Should deliver each streamed repository as soon as its commits arrive")
+    void streamActivity_WhenOneRepositoryIsSlow_ShouldDeliverOthersFirst() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(List.of(repo("slow"), repo("fast")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "slow", 5)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(commit("sha1"));
+        });
+        when(client.fetchRecentCommits("octocat", "fast", 5)).thenReturn(List.of(commit("sha2")));
+        BlockingQueue<RepoActivity> delivered = new LinkedBlockingQueue<>();
+
+        // Act
+        ActivityStream stream = service.streamActivity("octocat", 5, 0, 10, delivered::add);
+
+        // Assert
+        RepoActivity first = delivered.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals("fast", first.getRepository().getName());
+        assertFalse(stream.done().isDone());
+        release.countDown();
+        stream.done().get(5, TimeUnit.SECONDS);
+        assertEquals("slow", delivered.poll().getRepository().getName());
+    }
+
+    @Test
+    @DisplayName("Should not start the remaining fetches once the stream is cancelled")
+    void streamActivity_WhenCancelled_ShouldNotStartRemainingFetches() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        List<RepoSummary> repos = List.of(repo("r1"), repo("r2"), repo("r3"), repo("r4"), repo("r5"), repo("r6"));
+        when(client.fetchReposByPage("octocat", 1, 10)).thenReturn(new PaginationResult<>(repos, 0, 1, false));
+        when(client.fetchRecentCommits(eq("octocat"), anyString(), eq(5))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(commit("sha1"));
+        });
+        List<RepoActivity> delivered = new CopyOnWriteArrayList<>();
+        ActivityStream stream = service.streamActivity("octocat", 5, 0, 10, delivered::add);
+        stream.started().get(5, TimeUnit.SECONDS);
+
+        // Act
+        stream.done().cancel(true);
+        release.countDown();
+
+        // Assert
+        assertTrue(stream.done().isCancelled());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(client, never()).fetchRecentCommits("octocat", "r5", 5);
+        verify(client, never()).fetchRecentCommits("octocat", "r6", 5);
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream a failing repository with an error status and keep streaming the others")
+    void streamActivity_WhenRepositoryFails_ShouldDeliverItAsError() throws Exception {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10))
+                .thenReturn(new PaginationResult<>(List.of(repo("broken"), repo("ok"), repo("later")), 0, 1, false));
+        when(client.fetchRecentCommits("octocat", "broken", 5))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", null, null, null));
+        when(client.fetchRecentCommits("octocat", "ok", 5)).thenReturn(List.of(commit("sha1")));
+        when(client.fetchRecentCommits("octocat", "later", 5)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of(commit("sha2"));
+        });
+        List<RepoActivity> delivered = new CopyOnWriteArrayList<>();
+
+        // Act
+        ActivityStream stream = service.streamActivity("octocat", 5, 0, 10, delivered::add);
+        stream.done().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(3, delivered.size());
+        RepoActivity broken = delivered.stream().filter(a -> a.getRepository().getName().equals("broken")).findFirst().orElseThrow();
+        assertEquals(RepoActivity.Status.ERROR, broken.getStatus());
+        assertTrue(broken.getCommits().isEmpty());
+        assertEquals("later", delivered.get(2).getRepository().getName());
+        assertEquals(RepoActivity.Status.OK, delivered.get(2).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should fail to start the stream when the page cannot be listed")
+    void streamActivity_WhenListingFails_ShouldNotStart() {
+        // Arrange
+        when(client.fetchReposByPage("octocat", 1, 10)).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        ActivityStream stream = service.streamActivity("octocat", 5, 0, 10, activity -> fail("nothing to deliver"));
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> stream.started().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertTrue(stream.done().isCompletedExceptionally());
+    }
+
+    private static HttpHeaders rateLimitHeaders(long remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 60));
+        return headers;
+    }
+
+    private static RepoSummary repo(String name) {
+        return repo("octocat", name);
+    }
+
+    private static RepoSummary repo(String owner, String name) {
+        RepoSummary repo = new RepoSummary();
+        repo.setName(name);
+        repo.setFullName(owner + "/" + name);
+        return repo;
+    }
+
+    private static CommitInfo commit(String sha) {
+        CommitInfo commit = new CommitInfo();
+        commit.setSha(sha);
+        return commit;
+    }
+
+    private static CommitInfo commit(String sha, OffsetDateTime timestamp) {
+        CommitInfo commit = commit(sha);
+        commit.setTimestamp(timestamp);
+        return commit;
+    }
+}
@@ -0,0 +1,188 @@
+package io.example.github.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.example.github.client.GithubGraphqlClient;
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.client.UpstreamLimiter;
+import io.example.github.model.BulkActivity;
+import io.example.github.model.Page;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import io.example.github.model.UserActivity;
+import io.example.github.support.StubGithubServer;
+import io.example.github.support.StubGithubServer.RecordedRequest;
+import io.example.github.support.StubGithubServer.StubResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GraphqlGithubService Tests")
+class GraphqlGithubServiceTest {
+
+    private static final int REPO_COUNT = 5;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private volatile long commitDelayMillis;
+    private StubGithubServer server;
+    private GraphqlGithubService service;
+
+    @BeforeEach
+    void setUp() {
+        server = StubGithubServer.start().route("/graphql", this::repositories);
+        RestClient rest = RestClient.builder().baseUrl(server.baseUrl()).build();
+        service = new GraphqlGithubService(new GithubGraphqlClient(rest, new UpstreamLimiter(4),
+                        new RateLimitScheduler(true, 0.1, 5, Duration.ofSeconds(30)), "/graphql"),
+                new CursorSnapshots(100, Duration.ofMinutes(10)),
+                new ActivityAggregator(90, Duration.ofMinutes(5), 100), executor, 2,
+                Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should fetch all repositories with commits in batches")
+    void fetchActivityAsync_ShouldBatchRepositoriesAndCommits() {
+        // Act
+        List<RepoActivity> activity = service.fetchActivityAsync("octocat", 3);
+
+        // Assert
+        assertEquals(REPO_COUNT, activity.size());
+        assertEquals(3, server.requests().size()); // 2 + 2 + 1 repositories
+        RepoActivity first = activity.get(0);
+        assertEquals("octocat/r0", first.getRepository().getFullName());
+        assertEquals("main", first.getRepository().getDefaultBranch());
+        assertEquals(3, first.getCommits().size());
+        assertEquals("r0-sha0", first.getCommits().get(0).getSha());
+        assertEquals("Octo", first.getCommits().get(0).getAuthorName());
+        assertNotNull(first.getCommits().get(0).getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should skip earlier repositories without commit history and use totalCount")
+    void fetchActivityAsync_WithPage_ShouldSkipWithoutCommits() throws IOException {
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 2, 1, 2);
+
+        // Assert
+        assertEquals(List.of("r2", "r3"), page.getContent().stream().map(a -> a.getRepository().getName()).toList());
+        assertEquals(REPO_COUNT, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(2, server.requests().size());
+        JsonNode skip = mapper.readTree(server.requests().get(0).body()).get("variables");
+        JsonNode fetch = mapper.readTree(server.requests().get(1).body()).get("variables");
+        assertFalse(skip.get("withCommits").asBoolean());
+        assertTrue(fetch.get("withCommits").asBoolean());
+        assertEquals("c1", fetch.get("after").asText());
+    }
+
+    @Test
+    @DisplayName("Should return the repositories of batches that did not start before the deadline as timed out")
+    void fetchActivityAsync_WhenDeadlinePasses_ShouldReportUnstartedBatchesAsTimedOut() throws IOException {
+        // Arrange
+        commitDelayMillis = 300;
+
+        // Act
+        Page<RepoActivity> page = service.fetchActivityAsync("octocat", 2, 0, 4, Duration.ofMillis(100));
+
+        // Assert
+        assertEquals(List.of("r0", "r1", "r2", "r3"), page.getContent().stream().map(a -> a.getRepository().getName()).toList());
+        assertEquals(List.of(RepoActivity.Status.OK, RepoActivity.Status.OK, RepoActivity.Status.TIMED_OUT,
+                RepoActivity.Status.TIMED_OUT), page.getContent().stream().map(RepoActivity::getStatus).toList());
+        assertTrue(page.getContent().get(3).getCommits().isEmpty());
+        assertEquals(2, server.requests().size());
+        JsonNode rest = mapper.readTree(server.requests().get(1).body()).get("variables");
+        assertFalse(rest.get("withCommits").asBoolean());
+        assertEquals("c1", rest.get("after").asText());
+    }
+
+    @Test
+    @DisplayName("Should report a user whose GraphQL call fails and keep the rest of the batch")
+    void fetchBulkActivity_WhenOneUserFails_ShouldReportItAndKeepOthers() throws Exception {
+        // Act
+        BulkActivity bulk = service.fetchBulkActivity(List.of("broken", "octocat"), 1);
+        List<UserActivity> streamed = new CopyOnWriteArrayList<>();
+        service.streamBulkActivity(List.of("broken", "octocat"), 1, streamed::add).done().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("octocat"), List.copyOf(bulk.getUsers().keySet()));
+        assertEquals(REPO_COUNT, bulk.getRepositories());
+        assertTrue(bulk.getErrors().containsKey("broken"));
+        assertEquals(REPO_COUNT + 1, streamed.size());
+        assertEquals("broken", streamed.get(0).getUsername());
+        assertNotNull(streamed.get(0).getError());
+        assertTrue(streamed.subList(1, streamed.size()).stream().allMatch(a -> a.getError() == null));
+    }
+
+    @Test
+    @DisplayName("Should return an empty page for an unknown owner")
+    void fetchRepositoriesByPage_WhenOwnerUnknown_ShouldReturnEmpty() {
+        // Act
+        Page<RepoSummary> page = service.fetchRepositoriesByPage("ghost", 1, 10);
+
+        // Assert
+        assertTrue(page.isEmpty());
+    }
+
+    // Serves REPO_COUNT repositories for "octocat", cursor "cN" pointing after repository N
+    private StubResponse repositories(RecordedRequest request) {
+        try {
+            JsonNode variables = mapper.readTree(request.body()).get("variables");
+            if ("broken".equals(variables.get("login").asText())) {
+                return StubResponse.json(502, "{\"message\":\"Server Error\"}");
+            }
+            if (!"octocat".equals(variables.get("login").asText())) {
+                return StubResponse.json("{\"data\":{\"repositoryOwner\":null}}");
+            }
+            int start = variables.get("after").isNull() ? 0 : Integer.parseInt(variables.get("after").asText().substring(1)) + 1;
+            int end = Math.min(REPO_COUNT, start + variables.get("first").asInt());
+            boolean withCommits = variables.get("withCommits").asBoolean();
+            if (withCommits && commitDelayMillis > 0) Thread.sleep(commitDelayMillis);
+            int commits = variables.get("commits").asInt();
+
+            List<String> nodes = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                List<String> history = new ArrayList<>();
+                for (int c = 0; c < commits; c++) {
+                    history.add("""
+                            {"oid":"r%d-sha%d","message":"commit %d","url":"https://github.com/octocat/r%d/commit/%d",
+                             "author":{"name":"Octo","email":"octo@github.com","date":"2024-01-0%dT10:00:00+00:00"}}
+                            """.formatted(i, c, c, i, c, 9 - c));
+                }
+                String target = withCommits ? "{\"history\":{\"nodes\":[" + String.join(",", history) + "]}}" : "{}";
+                nodes.add("""
+                        {"name":"r%d","nameWithOwner":"octocat/r%d","isPrivate":false,"isFork":false,
+                         "url":"https://github.com/octocat/r%d","defaultBranchRef":{"name":"main","target":%s}}
+                        """.formatted(i, i, i, target));
+            }
+            return StubResponse.json("""
+                    {"data":{"repositoryOwner":{"repositories":{"totalCount":%d,
+                     "pageInfo":{"hasNextPage":%b,"endCursor":"c%d"},"nodes":[%s]}}}}
+                    """.formatted(REPO_COUNT, end < REPO_COUNT, end - 1, String.join(",", nodes)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.example.github.service;
+
+import io.example.github.client.RateLimitScheduler;
+import io.example.github.model.Page;
+import io.example.github.model.RepoActivity;
+import io.example.github.model.RepoSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotActivityRefresher Tests")
+class HotActivityRefresherTest {
+
+    @Mock
+    private GithubService githubService;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private RateLimitScheduler rateLimit;
+    private HotActivityRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        rateLimit = new RateLimitScheduler(true, 0.1, 5, Duration.ofSeconds(30));
+        refresher = new HotActivityRefresher(githubService, rateLimit, Runnable::run, true, 10, 2, 0.2,
+                Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), 100, now::get);
+    }
+
+    @Test
+    @DisplayName("Should serve a hot user's requested page from memory after a background refresh")
+    void page_AfterRefreshOfHotUser_ShouldServeMaterializedPage() {
+        // Arrange
+        Page<RepoActivity> second = new Page<>(List.of(activity("c")), 1, 2, 3);
+        when(githubService.fetchActivityAsync("octocat", 5, 1, 2)).thenReturn(second);
+        for (int i = 0; i < 3; i++) {
+            assertNull(refresher.page("octocat", 5, 1, 2));
+        }
+        refresher.refresh();
+
+        // Act
+        Page<RepoActivity> page = refresher.page("OctoCat", 5, 1, 2);
+
+        // Assert
+        assertSame(second, page);
+        assertNull(refresher.page("octocat", 5, 0, 2));
+        verify(githubService, times(1)).fetchActivityAsync("octocat", 5, 1, 2);
+        verify(githubService, never()).fetchActivityAsync(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not refresh users below the minimum score")
+    void refresh_WhenUserIsCold_ShouldNotFetch() {
+        // Arrange
+        refresher.page("octocat", 5, 0, 2);
+
+        // Act
+        refresher.refresh();
+
+        // Assert
+        verifyNoInteractions(githubService);
+        assertEquals(0, refresher.materializedCount());
+    }
+
+    @Test
+    @DisplayName("Should skip refreshes that do not fit into the rate limit share")
+    void refresh_WhenBudgetIsLow_ShouldNotFetch() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", "100");
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        rateLimit.update(headers, HttpStatus.OK);
+        for (int i = 0; i < 3; i++) refresher.page("octocat", 5, 0, 2);
+
+        // Act
+        refresher.refresh();
+
+        // Assert
+        verify(githubService, never()).fetchActivityAsync(anyString(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should refresh a page only once its worst case cost has accrued, and charge it up front")
+    void refresh_WithSlowlyAccruingCredit_ShouldWaitForPageCost() {
+        // Arrange: 1000 calls left, a 20% share over 60 ticks accrues about 3.3 calls a tick;
+        // a page of 20 repositories may cost 21 calls
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", "1000");
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        rateLimit.update(headers, HttpStatus.OK);
+        when(githubService.fetchActivityAsync("octocat", 5, 0, 20)).thenReturn(new Page<>(List.of(activity("a")), 0, 20, 1));
+        for (int i = 0; i < 3; i++) refresher.page("octocat", 5, 0, 20);
+
+        // Act & Assert
+        for (int tick = 0; tick < 6; tick++) refresher.refresh();
+        verify(githubService, never()).fetchActivityAsync(anyString(), anyInt(), anyInt(), anyInt());
+        for (int tick = 0; tick < 6; tick++) refresher.refresh();
+        verify(githubService, times(1)).fetchActivityAsync("octocat", 5, 0, 20);
+    }
+
+    @Test
+    @DisplayName("Should fetch each page on the executor and not start a page that is still being fetched")
+    void refresh_ShouldHandPagesToExecutorOnce() {
+        // Arrange
+        List<Runnable> tasks = new ArrayList<>();
+        HotActivityRefresher queued = new HotActivityRefresher(githubService, rateLimit, tasks::add, true, 10, 2, 0.2,
+                Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), 100, now::get);
+        Page<RepoActivity> first = new Page<>(List.of(activity("a")), 0, 2, 1);
+        when(githubService.fetchActivityAsync("octocat", 5, 0, 2)).thenReturn(first);
+        for (int i = 0; i < 3; i++) queued.page("octocat", 5, 0, 2);
+
+        // Act
+        queued.refresh();
+        queued.refresh();
+
+        // Assert
+        assertEquals(1, tasks.size());
+        verifyNoInteractions(githubService);
+        tasks.get(0).run();
+        assertSame(first, queued.page("octocat", 5, 0, 2));
+        queued.refresh();
+        assertEquals(2, tasks.size());
+    }
+
+    private static RepoActivity activity(String name) {
+        RepoSummary repo = new RepoSummary();
+        repo.setName(name);
+        return new RepoActivity(repo, List.of());
+    }
+}
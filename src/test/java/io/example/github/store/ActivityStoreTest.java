@@ -0,0 +1,101 @@
+package io.example.github.store;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.example.github.model.RepoSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ActivityStore Tests")
+class ActivityStoreTest {
+
+    private static final TypeReference<List<RepoSummary>> REPOS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path dir;
+
+    private ActivityStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) store.close();
+    }
+
+    @Test
+    @DisplayName("Should serve the latest value per key after a restart")
+    void get_AfterReopen_ShouldReadLatestValueFromLog() {
+        // Arrange
+        store = open();
+        store.put(ActivityStore.reposKey("octocat"), List.of(repo("old")));
+        store.close();
+        store = open();
+        store.put(ActivityStore.reposKey("OctoCat"), List.of(repo("new"), repo("other")));
+        store.close();
+
+        // Act
+        store = open();
+        List<RepoSummary> repos = store.get(ActivityStore.reposKey("octocat"), REPOS, Duration.ofHours(1));
+
+        // Assert
+        assertEquals(List.of("new", "other"), repos.stream().map(RepoSummary::getName).toList());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the end of the log and keep the intact ones")
+    void open_WithTornTail_ShouldTruncateIncompleteRecord() throws IOException {
+        // Arrange
+        store = open();
+        store.put(ActivityStore.reposKey("octocat"), List.of(repo("kept")));
+        store.close();
+        Path log = dir.resolve("activity.log");
+        long intact = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 64, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        store = open();
+
+        // Assert
+        assertEquals("kept", store.get(ActivityStore.reposKey("octocat"), REPOS, Duration.ofHours(1)).get(0).getName());
+        assertEquals(intact, Files.size(log));
+    }
+
+    @Test
+    @DisplayName("Should open read-only while another store owns the directory")
+    void open_WhenLocked_ShouldBeReadOnly() {
+        // Arrange
+        store = open();
+
+        // Act
+        ActivityStore second = open();
+
+        // Assert
+        assertTrue(store.isWritable());
+        assertFalse(second.isWritable());
+        second.close();
+    }
+
+    private ActivityStore open() {
+        return new ActivityStore(true, dir.toString(), mapper);
+    }
+
+    private static RepoSummary repo(String name) {
+        RepoSummary repo = new RepoSummary();
+        repo.setName(name);
+        return repo;
+    }
+}
@@ -0,0 +1,217 @@
+package io.example.github.support;
+
+import io.example.github.support.StubGithubServer.RecordedRequest;
+import io.example.github.support.StubGithubServer.StubResponse;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates the parts of the GitHub REST API the connector uses, on top of {@link StubGithubServer}:
+ * repository listings paged with {@code Link} headers ({@code /users/} also lists organizations, as on
+ * GitHub), commit lists that honour {@code per_page} and {@code since}, 404 for unknown owners, 409 for
+ * empty repositories, ETags with 304 answers, rate limit headers and a fixed latency per call.
+ * <p>
+ * Repository {@code i} of an owner is named {@code repo-i} and has {@code commitsPerRepo} commits, one a
+ * minute back from {@link #NEWEST_COMMIT}; every {@code emptyRepoEvery}-th repository has none.
+ */
+public class GithubSimulator implements AutoCloseable {
+
+    public static final Instant NEWEST_COMMIT = Instant.parse("2024-06-01T12:00:00Z");
+
+    private static final Pattern LISTING = Pattern.compile("/(users|orgs)/([^/]+)/repos");
+    private static final Pattern COMMITS = Pattern.compile("/repos/([^/]+)/repo-(\\d+)/commits");
+
+    private final StubGithubServer server;
+    private final Map<String, Owner> owners = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int commitsPerRepo = 30;
+    private volatile int emptyRepoEvery = 0;
+    private volatile long rateLimit = 1_000_000;
+
+    private GithubSimulator(StubGithubServer server) {
+        this.server = server;
+    }
+
+    public static GithubSimulator start() {
+        GithubSimulator simulator = new GithubSimulator(StubGithubServer.start().recording(false));
+        simulator.server.fallback(simulator::handle);
+        return simulator;
+    }
+
+    public GithubSimulator user(String login, int repoCount) {
+        owners.put(login.toLowerCase(), new Owner(false, repoCount));
+        return this;
+    }
+
+    public GithubSimulator org(String login, int repoCount) {
+        owners.put(login.toLowerCase(), new Owner(true, repoCount));
+        return this;
+    }
+
+    public GithubSimulator latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public GithubSimulator commitsPerRepo(int commitsPerRepo) {
+        this.commitsPerRepo = commitsPerRepo;
+        return this;
+    }
+
+    // 0 for no empty repositories
+    public GithubSimulator emptyRepoEvery(int emptyRepoEvery) {
+        this.emptyRepoEvery = emptyRepoEvery;
+        return this;
+    }
+
+    // Budget reported in X-RateLimit-*; the simulator never enforces it
+    public GithubSimulator rateLimit(long rateLimit) {
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    // Calls answered so far, 304s included
+    public long calls() {
+        return calls.get();
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    private StubResponse handle(RecordedRequest request) {
+        long call = calls.incrementAndGet();
+        sleep(latency);
+        Map<String, String> query = query(request.query());
+        StubResponse response;
+        Matcher listing = LISTING.matcher(request.path());
+        Matcher commits = COMMITS.matcher(request.path());
+        if (listing.matches()) {
+            response = listing(listing.group(1).equals("orgs"), listing.group(2), query);
+        } else if (commits.matches()) {
+            response = commits(commits.group(1), Integer.parseInt(commits.group(2)), query);
+        } else {
+            response = notFound();
+        }
+        return withHeaders(request, response, call);
+    }
+
+    private StubResponse listing(boolean orgs, String login, Map<String, String> query) {
+        Owner owner = owners.get(login.toLowerCase());
+        if (owner == null || (orgs && !owner.org())) return notFound();
+        int perPage = Math.min(100, Integer.parseInt(query.getOrDefault("per_page", "30")));
+        int page = Math.max(1, Integer.parseInt(query.getOrDefault("page", "1")));
+        int lastPage = Math.max(1, (owner.repoCount() + perPage - 1) / perPage);
+
+        StringBuilder body = new StringBuilder("[");
+        for (int i = (page - 1) * perPage; i < Math.min(page * perPage, owner.repoCount()); i++) {
+            if (body.length() > 1) body.append(',');
+            body.append("{\"id\":").append(i + 1)
+                    .append(",\"name\":\"repo-").append(i)
+                    .append("\",\"full_name\":\"").append(login).append("/repo-").append(i)
+                    .append("\",\"private\":false,\"fork\":false,\"html_url\":\"https://github.com/")
+                    .append(login).append("/repo-").append(i)
+                    .append("\",\"default_branch\":\"main\",\"owner\":{\"login\":\"").append(login).append("\"}}");
+        }
+        body.append(']');
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (lastPage > 1) {
+            String url = baseUrl() + "/" + (orgs ? "orgs" : "users") + "/" + login + "/repos?per_page=" + perPage
+                    + "&sort=updated&page=";
+            StringBuilder link = new StringBuilder();
+            if (page < lastPage) link.append('<').append(url).append(page + 1).append(">; rel=\"next\", ");
+            link.append('<').append(url).append(lastPage).append(">; rel=\"last\"");
+            if (page > 1) link.append(", <").append(url).append(page - 1).append(">; rel=\"prev\"");
+            headers.put("Link", link.toString());
+        }
+        return new StubResponse(200, headers, body.toString());
+    }
+
+    private StubResponse commits(String login, int repo, Map<String, String> query) {
+        Owner owner = owners.get(login.toLowerCase());
+        if (owner == null || repo >= owner.repoCount()) return notFound();
+        if (emptyRepoEvery > 0 && repo % emptyRepoEvery == 0) {
+            return StubResponse.json(409, "{\"message\":\"Git Repository is empty.\"}");
+        }
+        int perPage = Math.min(100, Integer.parseInt(query.getOrDefault("per_page", "30")));
+        Instant since = query.containsKey("since") ? Instant.parse(query.get("since")) : Instant.MIN;
+
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0, written = 0; i < commitsPerRepo && written < perPage; i++) {
+            Instant date = NEWEST_COMMIT.minusSeconds(60L * i);
+            if (date.isBefore(since)) break;
+            String sha = String.format("%08x%032x", repo, i);
+            if (written++ > 0) body.append(',');
+            body.append("{\"sha\":\"").append(sha)
+                    .append("\",\"html_url\":\"https://github.com/").append(login).append("/repo-").append(repo)
+                    .append("/commit/").append(sha)
+                    .append("\",\"commit\":{\"message\":\"Commit ").append(i)
+                    .append("\",\"author\":{\"name\":\"Octo Cat\",\"email\":\"octocat@example.com\",\"date\":\"")
+                    .append(date).append("\"}}}");
+        }
+        body.append(']');
+        return StubResponse.json(body.toString());
+    }
+
+    // ETag and rate limit headers as GitHub sends them; a matching If-None-Match turns the answer into a 304
+    private StubResponse withHeaders(RecordedRequest request, StubResponse response, long call) {
+        Map<String, String> headers = new HashMap<>(response.headers());
+        long resetAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        headers.put("X-RateLimit-Limit", String.valueOf(rateLimit));
+        headers.put("X-RateLimit-Remaining", String.valueOf(Math.max(0, rateLimit - call)));
+        headers.put("X-RateLimit-Reset", String.valueOf(resetAt));
+        if (response.status() != 200) return new StubResponse(response.status(), headers, response.body());
+
+        String etag = "\"" + Integer.toHexString(response.body().hashCode()) + "\"";
+        headers.put("ETag", etag);
+        List<String> ifNoneMatch = request.headers().get("If-none-match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return new StubResponse(304, headers, null);
+        }
+        return new StubResponse(200, headers, response.body());
+    }
+
+    private static StubResponse notFound() {
+        return StubResponse.json(404, "{\"message\":\"Not Found\"}");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) return;
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Owner(boolean org, int repoCount) {
+    }
+}
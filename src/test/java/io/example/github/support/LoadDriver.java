@@ -0,0 +1,98 @@
+package io.example.github.support;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop load generator: {@code concurrency} virtual threads each send a request, wait for the answer
+ * and send the next one until the duration is up. Request {@code n} goes to {@code urls.apply(n)}, so
+ * callers can spread the load over users and pages.
+ */
+public class LoadDriver {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public Report run(String name, int concurrency, Duration duration, IntFunction<String> urls) {
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        List<Samples> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                Samples samples = new Samples();
+                latencies.add(samples);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(urls.apply(sequence.getAndIncrement())))
+                                .timeout(Duration.ofSeconds(30)).GET().build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) errors.incrementAndGet();
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        samples.add(System.nanoTime() - sent);
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples.values, 0, samples.size))
+                .sorted().toArray();
+        return new Report(name, concurrency, all.length, errors.get(), elapsed / 1e9,
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // Latencies of one client thread, in nanoseconds
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Latencies in milliseconds.
+     */
+    public record Report(String name, int concurrency, long requests, long errors, double seconds,
+                         double p50, double p95, double p99, double max) {
+
+        public double requestsPerSecond() {
+            return requests / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s c=%-4d %7d req  %8.1f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d",
+                    name, concurrency, requests, requestsPerSecond(), p50, p95, p99, max, errors);
+        }
+    }
+}
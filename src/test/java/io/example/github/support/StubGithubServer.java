@@ -0,0 +1,106 @@
+package io.example.github.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Minimal local HTTP server standing in for api.github.com in tests.
+ * Routes are matched on the exact request path, anything else goes to the fallback handler (404 unless
+ * set); every request is recorded for assertions unless recording is switched off.
+ */
+public class StubGithubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, Function<RecordedRequest, StubResponse>> routes = new ConcurrentHashMap<>();
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile Function<RecordedRequest, StubResponse> fallback =
+            request -> StubResponse.json(404, "{\"message\":\"Not Found\"}");
+    private volatile boolean recording = true;
+
+    private StubGithubServer(HttpServer server) {
+        this.server = server;
+    }
+
+    public static StubGithubServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            StubGithubServer stub = new StubGithubServer(server);
+            server.createContext("/", stub::handle);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return stub;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start stub GitHub server", ex);
+        }
+    }
+
+    public StubGithubServer route(String path, Function<RecordedRequest, StubResponse> handler) {
+        routes.put(path, handler);
+        return this;
+    }
+
+    public StubGithubServer fallback(Function<RecordedRequest, StubResponse> handler) {
+        this.fallback = handler;
+        return this;
+    }
+
+    // Load runs send far too many requests to keep them all
+    public StubGithubServer recording(boolean recording) {
+        this.recording = recording;
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public List<RecordedRequest> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        RecordedRequest request = new RecordedRequest(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                exchange.getRequestURI().getRawQuery(), Map.copyOf(exchange.getRequestHeaders()), body);
+        if (recording) requests.add(request);
+
+        StubResponse response = routes.getOrDefault(request.path(), fallback).apply(request);
+
+        response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        byte[] bytes = response.body() == null ? new byte[0] : response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public record RecordedRequest(String method, String path, String query, Map<String, List<String>> headers, String body) {
+    }
+
+    public record StubResponse(int status, Map<String, String> headers, String body) {
+
+        public static StubResponse json(String body) {
+            return json(200, body);
+        }
+
+        public static StubResponse json(int status, String body) {
+            return new StubResponse(status, Map.of("Content-Type", "application/json"), body);
+        }
+    }
+}
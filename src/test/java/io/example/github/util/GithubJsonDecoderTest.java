@@ -0,0 +1,86 @@
+package io.example.github.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.example.github.model.CommitInfo;
+import io.example.github.model.RepoSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GithubJsonDecoder Tests")
+class GithubJsonDecoderTest {
+
+    private static final String REPOS = """
+            [{"id":1296269,"node_id":"MDEwOlJlcG9zaXRvcnkxMjk2MjY5","name":"Hello-World","full_name":"octocat/Hello-World",
+              "owner":{"login":"octocat","id":1,"site_admin":false},"private":false,"html_url":"https://github.com/octocat/Hello-World",
+              "description":null,"fork":true,"topics":["octocat","api"],"permissions":{"admin":false,"push":false,"pull":true},
+              "license":{"key":"mit","name":"MIT License"},"default_branch":"master","stargazers_count":80}]
+            """;
+
+    private static final String COMMITS = """
+            [{"sha":"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d","node_id":"MDY6Q29tbWl0",
+              "commit":{"author":{"name":"The Octocat","email":"octocat@nowhere.com","date":"2012-03-06T23:06:50Z"},
+                        "committer":{"name":"The Octocat","email":"octocat@nowhere.com","date":"2012-03-06T23:06:50Z"},
+                        "message":"Merge pull request #6 from Spaceghost/patch-1","tree":{"sha":"b4eecafa"},
+                        "comment_count":55,"verification":{"verified":false,"reason":"unsigned","signature":null,"payload":null}},
+              "html_url":"https://github.com/octocat/Hello-World/commit/7fd1a60b",
+              "author":{"login":"octocat","id":1},"committer":null,
+              "parents":[{"sha":"553c2077"},{"sha":"762941318"}]},
+             {"sha":"553c2077f0edc3d5dc5d17262f6aa498e69d6f8e","commit":{"author":null,"message":"first"},"html_url":null}]
+            """;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should decode repositories exactly like the Map based mapper")
+    void readRepos_ShouldMatchMapBasedMapping() throws IOException {
+        // Act
+        List<RepoSummary> decoded;
+        try (JsonParser parser = GithubJsonDecoder.parser(REPOS.getBytes())) {
+            decoded = GithubJsonDecoder.readRepos(parser);
+        }
+
+        // Assert
+        List<Map<String, Object>> json = mapper.readValue(REPOS, new TypeReference<>() {});
+        assertEquals(json.stream().map(GithubMappers::mapRepo).toList(), decoded);
+        assertTrue(decoded.get(0).isFork());
+        assertEquals("master", decoded.get(0).getDefaultBranch());
+    }
+
+    @Test
+    @DisplayName("Should decode commits exactly like the Map based mapper, skipping unused fields")
+    void readCommits_ShouldMatchMapBasedMapping() throws IOException {
+        // Act
+        List<CommitInfo> decoded;
+        try (JsonParser parser = GithubJsonDecoder.parser(COMMITS.getBytes())) {
+            decoded = GithubJsonDecoder.readCommits(parser, 10);
+        }
+
+        // Assert
+        List<Map<String, Object>> json = mapper.readValue(COMMITS, new TypeReference<>() {});
+        assertEquals(json.stream().map(GithubMappers::mapCommit).toList(), decoded);
+        assertEquals("The Octocat", decoded.get(0).getAuthorName());
+        assertEquals(List.of("553c2077", "762941318"), decoded.get(0).getParents());
+        assertNull(decoded.get(1).getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should stop after the requested number of commits")
+    void readCommits_WithLimit_ShouldStopEarly() throws IOException {
+        // Act
+        List<CommitInfo> decoded;
+        try (JsonParser parser = GithubJsonDecoder.parser(COMMITS.getBytes())) {
+            decoded = GithubJsonDecoder.readCommits(parser, 1);
+        }
+
+        // Assert
+        assertEquals(1, decoded.size());
+    }
+}
@@ -0,0 +1,45 @@
+package io.example.github.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GithubMappers Tests")
+class GithubMappersTest {
+
+    @Test
+    @DisplayName("Should parse timestamps exactly like OffsetDateTime.parse")
+    void parseTimestamp_ShouldMatchOffsetDateTimeParse() {
+        // Arrange
+        String[] values = {"2012-03-06T23:06:50Z", "2024-02-29T00:00:00Z", "2024-01-01T12:00:00+02:00", "2024-01-01T12:00:00.123Z"};
+
+        // Act & Assert
+        for (String value : values) {
+            assertEquals(OffsetDateTime.parse(value), GithubMappers.parseTimestamp(value), value);
+        }
+        assertThrows(DateTimeException.class, () -> GithubMappers.parseTimestamp("2024-13-01T00:00:00Z"));
+        assertThrows(DateTimeException.class, () -> GithubMappers.parseTimestamp("2024-0a-01T00:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("Should read next link and total pages from the Link header")
+    void parsePaginationInfo_ShouldReadNextAndLast() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LINK, "<https://api.github.com/user/1/repos?per_page=100&page=2>; rel=\"next\", "
+                + "<https://api.github.com/user/1/repos?per_page=100&page=7>; rel=\"last\"");
+
+        // Act
+        GithubMappers.PaginationInfo info = GithubMappers.parsePaginationInfo(headers);
+
+        // Assert
+        assertEquals("https://api.github.com/user/1/repos?per_page=100&page=2", info.getNextUrl());
+        assertEquals("https://api.github.com/user/1/repos?per_page=100&page=2", GithubMappers.parseNextLink(headers));
+        assertEquals(7, info.getTotalPages());
+    }
+}
@@ -0,0 +1,52 @@
+package io.example.github.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TtlCache Tests")
+class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should expire entries after the configured ttl")
+    void get_AfterTtl_ShouldMiss() {
+        // Arrange
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofSeconds(5), now::get);
+        cache.put("octocat", "repos");
+
+        // Act
+        String fresh = cache.get("octocat");
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        String expired = cache.get("octocat");
+
+        // Assert
+        assertEquals("repos", fresh);
+        assertNull(expired);
+        assertEquals(new TtlCache.Stats(1, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        TtlCache<String, String> cache = new TtlCache<>(2, Duration.ofMinutes(1), now::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        // Act
+        cache.put("c", "3");
+
+        // Assert
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+    }
+}